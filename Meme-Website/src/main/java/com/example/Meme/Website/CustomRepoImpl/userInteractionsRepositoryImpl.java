@@ -17,7 +17,10 @@ import org.springframework.stereotype.Repository;
 import com.example.Meme.Website.DBO.MemeInteractionDBO;
 import com.example.Meme.Website.models.ActionType;
 
+import lombok.extern.slf4j.Slf4j;
+
 @Repository
+@Slf4j
 public class userInteractionsRepositoryImpl implements CustomUserInteractionRepository {
 
     @Autowired
@@ -42,16 +45,10 @@ public class userInteractionsRepositoryImpl implements CustomUserInteractionRepo
 
         query.with(pageable);
 
-        System.out.println("🛠️  Query: " + query);
-        System.out.println("📄 Collection: userInteractions");
+        log.debug("🛠️ Query on userInteractions: {}", query);
 
         List<MemeInteractionDBO> results = mongoTemplate.find(query, MemeInteractionDBO.class, "userInteractions");
 
-        System.out.println("✅ Fetched Interactions: ");
-        for (MemeInteractionDBO result : results) {
-            System.out.println("👉 MemeId: " + result.getMemeId() + " | Type: " + result.getType());
-        }
-
         boolean hasNext = results.size() == pageable.getPageSize();
 
         return new SliceImpl<>(results, pageable, hasNext);
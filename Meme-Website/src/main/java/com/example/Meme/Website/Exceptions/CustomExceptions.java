@@ -13,5 +13,11 @@ public class CustomExceptions {
             super(message);
         }
     }
-    
+
+    public static class InvalidFrameException extends RuntimeException {
+        public InvalidFrameException(String message) {
+            super(message);
+        }
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.example.Meme.Website.Properties;
 
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -7,6 +8,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "rate-limiting")
 public class RateLimitProperties {
     private Map<String, Map<String, Limit>> limits;
+    private List<Route> routes;
 
     public Map<String, Map<String, Limit>> getLimits() {
         return limits;
@@ -16,6 +18,14 @@ public class RateLimitProperties {
         this.limits = limits;
     }
 
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+
     public static class Limit {
         private int maxTokens;
         private int refillRatePerSec;
@@ -36,4 +46,33 @@ public class RateLimitProperties {
             this.refillRatePerSec = refillRatePerSec;
         }
     }
+
+    public static class Route {
+        private String pattern;
+        private String bucket;
+
+        public Route() {
+        }
+
+        public Route(String pattern, String bucket) {
+            this.pattern = pattern;
+            this.bucket = bucket;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public String getBucket() {
+            return bucket;
+        }
+
+        public void setBucket(String bucket) {
+            this.bucket = bucket;
+        }
+    }
 }
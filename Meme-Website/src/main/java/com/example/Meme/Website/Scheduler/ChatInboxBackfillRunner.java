@@ -0,0 +1,73 @@
+package com.example.Meme.Website.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.models.ChatRoom;
+import com.example.Meme.Website.services.ChatInboxService;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Fills the inbox fields on ChatRoomSettings for rooms that existed before they were introduced.
+// Runs once per deployment: the Redis flag is taken as a lock first and kept once the pass completes.
+@Component
+@Slf4j
+public class ChatInboxBackfillRunner {
+
+    private static final String DONE_KEY = "chat:inbox:backfill:v1";
+    private static final int PAGE_SIZE = 200;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private ChatInboxService chatInboxService;
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillInbox() {
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(DONE_KEY, "running", Duration.ofHours(1));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+
+        try {
+            ObjectId lastId = null;
+            int rows = 0;
+            while (true) {
+                Query query = new Query()
+                        .with(Sort.by(Sort.Direction.ASC, "_id"))
+                        .limit(PAGE_SIZE);
+                if (lastId != null) {
+                    query.addCriteria(Criteria.where("_id").gt(lastId));
+                }
+
+                List<ChatRoom> rooms = mongoTemplate.find(query, ChatRoom.class);
+                if (rooms.isEmpty()) {
+                    break;
+                }
+                rows += chatInboxService.backfillRooms(rooms);
+                lastId = new ObjectId(rooms.get(rooms.size() - 1).getId());
+            }
+
+            redisTemplate.opsForValue().set(DONE_KEY, "done");
+            log.info("📥 Chat inbox backfill done, {} rows written", rows);
+        } catch (Exception e) {
+            redisTemplate.delete(DONE_KEY);
+            log.error("❌ Chat inbox backfill failed: {}", e.getMessage());
+        }
+    }
+}
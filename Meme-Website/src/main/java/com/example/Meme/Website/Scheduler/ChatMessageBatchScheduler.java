@@ -0,0 +1,143 @@
+package com.example.Meme.Website.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.batch.ChatMessageBatchBuffer;
+import com.example.Meme.Website.batch.ChatMessageBatchBuffer.PendingChatMessage;
+import com.example.Meme.Website.models.ChatMessage;
+import com.example.Meme.Website.services.ChatInboxService;
+import com.example.Meme.Website.services.ChatMessageJournal;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class ChatMessageBatchScheduler {
+
+    @Autowired
+    private ChatMessageBatchBuffer chatMessageBatchBuffer;
+    @Autowired
+    private ChatMessageJournal chatMessageJournal;
+    @Autowired
+    private ChatInboxService chatInboxService;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${chat.write-behind.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${chat.write-behind.replay-after-ms:60000}")
+    private long replayAfterMs;
+
+    @Scheduled(fixedRateString = "${chat.write-behind.flush-interval-ms:500}")
+    public void flushChatMessages() {
+        List<PendingChatMessage> batch = chatMessageBatchBuffer.drainMessages(maxBatchSize);
+        Map<String, ChatMessage> lastMessages = chatMessageBatchBuffer.drainLastMessages();
+
+        // Only messages this flush inserted count as unread, a replayed or edited copy replaces an existing one
+        List<ChatMessage> inserted = new ArrayList<>();
+        if (!batch.isEmpty()) {
+            // Upserts keyed by the pre-assigned _id, so replaying a batch never duplicates a message
+            List<ReplaceOneModel<Document>> writes = new ArrayList<>(batch.size());
+            for (PendingChatMessage pending : batch) {
+                Document document = new Document();
+                mongoTemplate.getConverter().write(pending.getMessage(), document);
+                writes.add(new ReplaceOneModel<>(
+                        Filters.eq("_id", document.get("_id")),
+                        document,
+                        new ReplaceOptions().upsert(true)));
+            }
+
+            BulkWriteResult result;
+            try {
+                result = mongoTemplate.getCollection("chatMessages").bulkWrite(writes, new BulkWriteOptions().ordered(true));
+            } catch (Exception e) {
+                log.error("❌ Failed to persist {} chat messages, retrying next tick: {}", batch.size(), e.getMessage());
+                chatMessageBatchBuffer.requeue(batch, lastMessages);
+                return;
+            }
+
+            for (BulkWriteUpsert upsert : result.getUpserts()) {
+                inserted.add(batch.get(upsert.getIndex()).getMessage());
+            }
+            chatMessageBatchBuffer.markPersisted(batch);
+            chatMessageJournal.acknowledge(batch.stream()
+                    .map(PendingChatMessage::getJournalId)
+                    .filter(Objects::nonNull)
+                    .toList());
+            log.info("💬 Saved {} chat messages in batch", batch.size());
+        }
+
+        if (!lastMessages.isEmpty()) {
+            // One update per room no matter how many messages it got, and never move lastUpdated backwards
+            List<UpdateOneModel<Document>> updates = lastMessages.entrySet().stream()
+                    .filter(entry -> ObjectId.isValid(entry.getKey()))
+                    .map(entry -> new UpdateOneModel<Document>(
+                            Filters.and(
+                                    Filters.eq("_id", new ObjectId(entry.getKey())),
+                                    Filters.or(
+                                            Filters.exists("lastUpdated", false),
+                                            Filters.lt("lastUpdated", entry.getValue().getTimestamp()))),
+                            Updates.combine(
+                                    Updates.set("lastMessageId", entry.getValue().getId()),
+                                    Updates.set("lastUpdated", entry.getValue().getTimestamp()))))
+                    .toList();
+
+            try {
+                mongoTemplate.getCollection("chatroom").bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            } catch (Exception e) {
+                log.error("❌ Failed to update last message for {} chat rooms: {}", updates.size(), e.getMessage());
+                chatMessageBatchBuffer.requeue(List.of(), lastMessages);
+            }
+        }
+
+        try {
+            chatInboxService.applyMessages(inserted, lastMessages.values());
+        } catch (Exception e) {
+            // Messages are already stored; retrying would count them as unread twice
+            log.error("❌ Failed to update chat inboxes for {} messages: {}", inserted.size(), e.getMessage());
+        }
+    }
+
+    // Journal entries still around long after a flush should have acknowledged them were left by a
+    // node that went down with a batch in memory. One node claims and buffers each of them again; the
+    // upsert makes this idempotent and the unread counters only move for messages that were inserted.
+    @Scheduled(fixedRateString = "${chat.write-behind.replay-after-ms:60000}")
+    public void replayOrphanedMessages() {
+        List<PendingChatMessage> orphaned = chatMessageJournal.readOlderThan(
+                System.currentTimeMillis() - replayAfterMs, maxBatchSize);
+
+        int replayed = 0;
+        for (PendingChatMessage pending : orphaned) {
+            if (!chatMessageBatchBuffer.isPending(pending.getMessage().getId())
+                    && chatMessageJournal.claim(pending.getJournalId(), Duration.ofMillis(replayAfterMs))) {
+                chatMessageBatchBuffer.bufferMessage(pending.getMessage(), pending.getJournalId());
+                replayed++;
+            }
+        }
+
+        if (replayed > 0) {
+            log.warn("♻️ Replayed {} chat messages from the journal", replayed);
+        }
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.stereotype.Component;
 import com.example.Meme.Website.batch.CommentBatchBuffer;
 import com.example.Meme.Website.models.Comments;
 import com.example.Meme.Website.repository.commentRepository;
+import com.example.Meme.Website.services.LiveCounterService;
+import com.example.Meme.Website.services.MemeCache;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.Updates;
@@ -30,6 +32,8 @@ public class CommentBatchScheduler {
     private commentRepository commentRepository;
     @Autowired
     private MongoTemplate mongoTemplate;
+    @Autowired
+    private LiveCounterService liveCounterService;
 
     @Scheduled(fixedRate = 5000)
     public void processCommentbatch(){
@@ -50,6 +54,7 @@ public class CommentBatchScheduler {
                 .collect(Collectors.toList());
 
             mongoTemplate.getCollection("memes").bulkWrite(updates);
+            liveCounterService.flushed(MemeCache.COMMENTS, commentDeltas);
             log.info("🔁 Updated commentCount for {} memes", updates.size());
         }
     }
@@ -15,6 +15,8 @@ import org.springframework.stereotype.Component;
 import com.example.Meme.Website.batch.InteractionBatchBuffer;
 import com.example.Meme.Website.models.UserInteraction;
 import com.example.Meme.Website.repository.userInteractionsRepository;
+import com.example.Meme.Website.services.LiveCounterService;
+import com.example.Meme.Website.services.MemeCache;
 import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.model.DeleteOneModel;
 import com.mongodb.client.model.Filters;
@@ -37,6 +39,9 @@ public class InteractionBatchScheduler {
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private LiveCounterService liveCounterService;
+
     @Scheduled(fixedRate = 5000)
     public void processbatches() {
         List<UserInteraction> inserts = buffer.drinInsertBatch();
@@ -73,6 +78,7 @@ public class InteractionBatchScheduler {
                     .collect(Collectors.toList());
 
             BulkWriteResult likeResult = mongoTemplate.getCollection("memes").bulkWrite(likeUpdates);
+            liveCounterService.flushed(MemeCache.LIKES, likeDeltas);
             log.info("Updated likecount for {} memes", likeResult.getModifiedCount());
         }
 
@@ -84,6 +90,7 @@ public class InteractionBatchScheduler {
                     .collect(Collectors.toList());
 
             BulkWriteResult saveResult = mongoTemplate.getCollection("memes").bulkWrite(saveUpdates);
+            liveCounterService.flushed(MemeCache.SAVES, saveDeltas);
             log.info("Updated savecount for {} memes", saveResult.getModifiedCount());
         }
 
@@ -95,6 +102,7 @@ public class InteractionBatchScheduler {
                     .collect(Collectors.toList());
 
             BulkWriteResult viewResult = mongoTemplate.getCollection("memes").bulkWrite(viewUpdates);
+            liveCounterService.flushed(MemeCache.VIEWS, viewDeltas);
             log.info("Updated viewCount for {} memes", viewResult.getModifiedCount());
         }
 
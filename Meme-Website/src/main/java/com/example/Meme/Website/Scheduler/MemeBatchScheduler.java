@@ -14,6 +14,7 @@ import org.springframework.stereotype.Component;
 import com.example.Meme.Website.batch.MemeBatchBuffer;
 import com.example.Meme.Website.models.Meme;
 import com.example.Meme.Website.repository.memeRepository;
+import com.example.Meme.Website.services.RedisService;
 import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.model.UpdateOneModel;
 
@@ -29,6 +30,8 @@ public class MemeBatchScheduler {
     private memeRepository memeRepository;
     @Autowired
     private MongoTemplate mongoTemplate;
+    @Autowired
+    private RedisService redisService;
 
     @Scheduled(fixedDelay = 5000)
     public void processMemeUploads() {
@@ -43,6 +46,8 @@ public class MemeBatchScheduler {
 
         if (!memeDeleteBatch.isEmpty()) {
             memeRepository.deleteAll(memeDeleteBatch);
+            // Only now is the meme gone for readers, so its media can go as well
+            memeDeleteBatch.forEach(meme -> redisService.pushMemeToCleanupQueue(meme.getId(), meme.getMediaUrl()));
             log.info("📤 Deleted {} memes in batch", memeDeleteBatch.size());
         }
 
@@ -1,61 +1,393 @@
 package com.example.Meme.Website.Scheduler;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import com.example.Meme.Website.repository.notificationRepository;
-import com.example.Meme.Website.repository.commentRepository;
-import com.example.Meme.Website.repository.userInteractionsRepository;
+import com.example.Meme.Website.models.Comments;
+import com.example.Meme.Website.models.NotificationModel;
+import com.example.Meme.Website.models.UserInteraction;
+import com.example.Meme.Website.services.CloudService;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
+// Cascade cleanup for deleted memes, as a resumable pipeline. Memes are queued once their Mongo delete
+// has been flushed by MemeBatchScheduler, so media is never removed for a meme that is still served.
+//  1. claim a batch from the pending queue into this node's processing list (atomic, the list is the checkpoint),
+//  2. Mongo stage: one deleteMany {memeId: {$in: batch}} per collection, collections in parallel,
+//  3. S3 stage: media objects removed with batched DeleteObjects,
+//  4. acknowledge: drop the batch from the processing list.
+// Every stage is idempotent. Memes whose Mongo stage is done are recorded in the checkpoint hash, so
+// a batch requeued for a failed S3 delete (or left behind by a crashed node) skips straight to S3.
+// Each node keeps a liveness key alive while it runs; a processing list is only requeued once its
+// node's key has expired, so batches a live node is still working on are never handed out twice.
+// The batch size adapts to how long a batch takes, and a tick keeps draining while there is backlog.
+// Memes whose S3 delete failed stay in the processing list until the next tick, so retries are spaced out.
 @Service
 @Slf4j
 public class MemeCleanupService {
-    
+
     private static final String REDIS_KEY = "memes:pending_cleanup";
-    private static final int BATCH_SIZE = 20;
+    private static final String MEDIA_KEY = REDIS_KEY + ":media";
+    private static final String PROCESSING_KEY_PREFIX = "memes:cleanup:processing:";
+    private static final String ALIVE_KEY_PREFIX = "memes:cleanup:alive:";
+    private static final String NODES_KEY = "memes:cleanup:nodes";
+    private static final String CHECKPOINT_KEY = "memes:cleanup:checkpoint";
+
+    // LRANGE + LTRIM + RPUSH in one step so a batch is never in neither list
+    private static final RedisScript<List> CLAIM_BATCH = new DefaultRedisScript<>(
+            "local items = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1) "
+                    + "if #items > 0 then "
+                    + "redis.call('LTRIM', KEYS[1], #items, -1) "
+                    + "redis.call('RPUSH', KEYS[2], unpack(items)) "
+                    + "end return items",
+            List.class);
+
+    // Liveness check and move in one step, so a node that comes back can't race its own batch being requeued
+    private static final RedisScript<Long> REQUEUE_DEAD_NODE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return -1 end "
+                    + "local items = redis.call('LRANGE', KEYS[2], 0, -1) "
+                    + "if #items > 0 then redis.call('RPUSH', KEYS[3], unpack(items)) end "
+                    + "redis.call('DEL', KEYS[2]) "
+                    + "redis.call('SREM', KEYS[4], ARGV[1]) "
+                    + "return #items",
+            Long.class);
 
     @Autowired private RedisTemplate<String, String> redisTemplate;
-    @Autowired private commentRepository commentRepository;
-    @Autowired private userInteractionsRepository userInteractionRepository;
-    @Autowired private notificationRepository notificationRepository;
+    @Autowired private MongoTemplate mongoTemplate;
+    @Autowired private CloudService cloudService;
+
+    @Value("${memes.cleanup.min-batch-size:20}")
+    private int minBatchSize;
+    @Value("${memes.cleanup.max-batch-size:500}")
+    private int maxBatchSize;
+    @Value("${memes.cleanup.target-batch-ms:2000}")
+    private long targetBatchMs;
+    @Value("${memes.cleanup.tick-budget-ms:8000}")
+    private long tickBudgetMs;
+    @Value("${memes.cleanup.max-s3-attempts:5}")
+    private int maxS3Attempts;
+    @Value("${memes.cleanup.threads:3}")
+    private int threads;
+    @Value("${memes.cleanup.node-ttl-ms:60000}")
+    private long nodeTtlMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final String processingKey = PROCESSING_KEY_PREFIX + nodeId;
+
+    private ExecutorService executor;
+    private volatile int batchSize;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // Memes waiting for their S3 retry, released back to the queue at the start of the next tick
+    private final Set<String> deferred = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong memesCleaned = new AtomicLong();
+    private final AtomicLong commentsDeleted = new AtomicLong();
+    private final AtomicLong interactionsDeleted = new AtomicLong();
+    private final AtomicLong notificationsDeleted = new AtomicLong();
+    private final AtomicLong mediaDeleted = new AtomicLong();
+    private final AtomicLong mediaFailed = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong busyMs = new AtomicLong();
+    private volatile long lastBatchMs;
+
+    @PostConstruct
+    public void init() {
+        batchSize = minBatchSize;
+        AtomicInteger counter = new AtomicInteger();
+        // One thread drives the drain, the others run its Mongo stage
+        executor = Executors.newFixedThreadPool(threads + 1, runnable -> {
+            Thread thread = new Thread(runnable, "meme-cleanup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            // Let another node pick up whatever this one was processing right away
+            redisTemplate.delete(ALIVE_KEY_PREFIX + nodeId);
+        } catch (Exception e) {
+            log.error("Failed to release cleanup node liveness: {}", e.getMessage());
+        }
+    }
+
+    // Batches a node was working on when it went down. Reprocessing is harmless, every stage is idempotent.
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        markAlive();
+        requeueDeadNodes();
+    }
 
-    @Scheduled(fixedDelay = 10000)
+    // The scheduler thread is shared by every @Scheduled task, so the tick only hands the drain to the
+    // cleanup pool. A tick that finds the previous drain still running is skipped.
+    @Scheduled(fixedDelayString = "${memes.cleanup.interval-ms:10000}")
     public void triggerCleanup() {
-        asyncCleanupTask();
+        if (!draining.compareAndSet(false, true)) return;
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            requeueDeadNodes();
+            releaseDeferred();
+            long deadline = System.currentTimeMillis() + tickBudgetMs;
+            while (System.currentTimeMillis() < deadline) {
+                if (!markAlive()) break;
+                int requested = batchSize;
+                int processed = runBatch(requested);
+                if (processed < requested) break;
+            }
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private void releaseDeferred() {
+        if (deferred.isEmpty()) return;
+        List<String> memeIds = new ArrayList<>(deferred);
+        try {
+            moveToQueue(memeIds);
+            memeIds.forEach(deferred::remove);
+        } catch (Exception e) {
+            log.error("Failed to release cleanup retries: {}", e.getMessage());
+        }
+    }
+
+    private boolean markAlive() {
+        try {
+            redisTemplate.opsForValue().set(ALIVE_KEY_PREFIX + nodeId, "1", Duration.ofMillis(nodeTtlMs));
+            redisTemplate.opsForSet().add(NODES_KEY, nodeId);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to refresh cleanup node liveness: {}", e.getMessage());
+            return false;
+        }
     }
 
-    @Async
-    public void asyncCleanupTask() {
-        List<String> memeIds = new ArrayList<>();
+    private void requeueDeadNodes() {
+        try {
+            Set<String> nodes = redisTemplate.opsForSet().members(NODES_KEY);
+            if (nodes == null) return;
 
-        for (int i = 0; i < BATCH_SIZE; i++) {
-            String memeId = redisTemplate.opsForList().leftPop(REDIS_KEY);
-            if (memeId == null) break;
-            memeIds.add(memeId);
+            for (String node : nodes) {
+                if (node.equals(nodeId)) continue;
+                Long requeued = redisTemplate.execute(REQUEUE_DEAD_NODE,
+                        List.of(ALIVE_KEY_PREFIX + node, PROCESSING_KEY_PREFIX + node, REDIS_KEY, NODES_KEY), node);
+                if (requeued != null && requeued > 0) {
+                    log.warn("♻️ Resumed {} memes left in cleanup processing by node {}", requeued, node);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to resume meme cleanup: {}", e.getMessage());
         }
+    }
 
-        if (memeIds.isEmpty()) return;
+    @SuppressWarnings("unchecked")
+    private int runBatch(int size) {
+        List<String> memeIds;
+        try {
+            memeIds = redisTemplate.execute(CLAIM_BATCH, List.of(REDIS_KEY, processingKey), String.valueOf(size));
+        } catch (Exception e) {
+            log.error("Cleanup claim error: {}", e.getMessage());
+            return 0;
+        }
+        if (memeIds == null || memeIds.isEmpty()) return 0;
 
+        long started = System.currentTimeMillis();
         try {
-            log.info("[ASYNC] Cleaning up memeIds: {}", memeIds);
+            List<Object> stages = redisTemplate.opsForHash().multiGet(CHECKPOINT_KEY, new ArrayList<>(memeIds));
+            Map<String, Object> checkpoints = new HashMap<>();
+            for (int i = 0; i < memeIds.size(); i++) {
+                if (stages.get(i) != null) {
+                    checkpoints.put(memeIds.get(i), stages.get(i));
+                }
+            }
+            List<String> pendingMongo = memeIds.stream().filter(id -> !checkpoints.containsKey(id)).toList();
 
-            commentRepository.deleteAllByMemeIdIn(memeIds);
-            notificationRepository.deleteAllByMemeIdIn(memeIds);
-            userInteractionRepository.deleteAllByMemeIdIn(memeIds);
+            if (!pendingMongo.isEmpty()) {
+                deleteFromMongo(pendingMongo);
+                Map<String, String> done = new HashMap<>();
+                pendingMongo.forEach(id -> done.put(id, "0"));
+                redisTemplate.opsForHash().putAll(CHECKPOINT_KEY, done);
+            }
 
-            log.info("✅ Cleanup completed for memes: {}", memeIds);
+            List<String> retry = deleteMedia(memeIds, checkpoints);
+            acknowledge(memeIds, retry);
+            deferred.addAll(retry);
 
+            memesCleaned.addAndGet(memeIds.size() - retry.size());
+            log.info("✅ Cleanup completed for {} memes ({} media retries)", memeIds.size(), retry.size());
         } catch (Exception e) {
+            failedBatches.incrementAndGet();
             log.error("Cleanup error: {}", e.getMessage());
-            memeIds.forEach(id -> redisTemplate.opsForList().rightPush(REDIS_KEY, id));
+            requeue(memeIds);
+            // Back off to the smallest batch after a failure
+            batchSize = minBatchSize;
+            return 0;
+        } finally {
+            lastBatchMs = System.currentTimeMillis() - started;
+            busyMs.addAndGet(lastBatchMs);
+            batches.incrementAndGet();
+        }
+
+        adapt(memeIds.size(), size);
+        return memeIds.size();
+    }
+
+    // deleteMany per collection instead of the derived deleteAllBy..., which loads every document first
+    private void deleteFromMongo(List<String> memeIds) {
+        Query byMeme = new Query(Criteria.where("memeId").in(memeIds));
+        CompletableFuture<Void> comments = CompletableFuture.runAsync(() -> commentsDeleted.addAndGet(
+                mongoTemplate.remove(byMeme, Comments.class).getDeletedCount()), executor);
+        CompletableFuture<Void> interactions = CompletableFuture.runAsync(() -> interactionsDeleted.addAndGet(
+                mongoTemplate.remove(byMeme, UserInteraction.class).getDeletedCount()), executor);
+        CompletableFuture<Void> notifications = CompletableFuture.runAsync(() -> notificationsDeleted.addAndGet(
+                mongoTemplate.remove(byMeme, NotificationModel.class).getDeletedCount()), executor);
+        CompletableFuture.allOf(comments, interactions, notifications).join();
+    }
+
+    // Returns the memes whose media still has to be retried
+    private List<String> deleteMedia(List<String> memeIds, Map<String, Object> checkpoints) {
+        List<Object> mediaUrls = redisTemplate.opsForHash().multiGet(MEDIA_KEY, new ArrayList<>(memeIds));
+        Map<String, String> memeByUrl = new LinkedHashMap<>();
+        for (int i = 0; i < memeIds.size(); i++) {
+            Object url = mediaUrls.get(i);
+            if (url != null) {
+                memeByUrl.put(url.toString(), memeIds.get(i));
+            }
+        }
+        if (memeByUrl.isEmpty()) return List.of();
+
+        List<String> failedUrls = cloudService.deleteFromS3ByPublicUrls(memeByUrl.keySet());
+        mediaDeleted.addAndGet(memeByUrl.size() - failedUrls.size());
+        mediaFailed.addAndGet(failedUrls.size());
+
+        List<String> retry = new ArrayList<>();
+        for (String url : failedUrls) {
+            String memeId = memeByUrl.get(url);
+            Object previous = checkpoints.get(memeId);
+            int attempts = previous != null ? Integer.parseInt(previous.toString()) + 1 : 1;
+            if (attempts < maxS3Attempts) {
+                redisTemplate.opsForHash().put(CHECKPOINT_KEY, memeId, String.valueOf(attempts));
+                retry.add(memeId);
+            } else {
+                log.error("❌ Giving up on S3 media for meme {} after {} attempts: {}", memeId, attempts, url);
+            }
+        }
+        return retry;
+    }
+
+    private void acknowledge(List<String> memeIds, List<String> retry) {
+        List<String> finished = memeIds.stream().filter(id -> !retry.contains(id)).toList();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                // Retries stay in the processing list until the next tick releases them
+                for (String memeId : finished) {
+                    ops.opsForList().remove(processingKey, 1, memeId);
+                }
+                if (!finished.isEmpty()) {
+                    ops.opsForHash().delete(CHECKPOINT_KEY, finished.toArray());
+                    ops.opsForHash().delete(MEDIA_KEY, finished.toArray());
+                }
+                return null;
+            }
+        });
+    }
+
+    private void requeue(List<String> memeIds) {
+        try {
+            moveToQueue(memeIds);
+        } catch (Exception e) {
+            // Still in this node's processing list, requeued by another node if this one goes down
+            log.error("Cleanup requeue error: {}", e.getMessage());
+        }
+    }
+
+    private void moveToQueue(List<String> memeIds) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String memeId : memeIds) {
+                    ops.opsForList().remove(processingKey, 1, memeId);
+                }
+                ops.opsForList().rightPushAll(REDIS_KEY, memeIds);
+                return null;
+            }
+        });
+    }
+
+    // Grow while full batches finish well within the target, shrink when they run over
+    private void adapt(int processed, int requested) {
+        if (lastBatchMs > targetBatchMs) {
+            batchSize = Math.max(minBatchSize, requested / 2);
+        } else if (processed == requested && lastBatchMs < targetBatchMs / 2) {
+            batchSize = Math.min(maxBatchSize, requested * 2);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        long busy = busyMs.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("batchSize", batchSize);
+        metrics.put("batches", batches.get());
+        metrics.put("failedBatches", failedBatches.get());
+        metrics.put("memesCleaned", memesCleaned.get());
+        metrics.put("commentsDeleted", commentsDeleted.get());
+        metrics.put("interactionsDeleted", interactionsDeleted.get());
+        metrics.put("notificationsDeleted", notificationsDeleted.get());
+        metrics.put("mediaDeleted", mediaDeleted.get());
+        metrics.put("mediaFailed", mediaFailed.get());
+        metrics.put("lastBatchMs", lastBatchMs);
+        metrics.put("memesPerSecond", busy == 0 ? 0 : memesCleaned.get() * 1000 / busy);
+        try {
+            metrics.put("queued", redisTemplate.opsForList().size(REDIS_KEY));
+            metrics.put("processing", redisTemplate.opsForList().size(processingKey));
+        } catch (Exception e) {
+            log.error("Failed to read cleanup queue sizes: {}", e.getMessage());
         }
+        return metrics;
     }
 }
@@ -1,16 +1,19 @@
 package com.example.Meme.Website.Scheduler;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import com.example.Meme.Website.WebSockets.WebSocketSessionManager;
 import com.example.Meme.Website.batch.NotificationBatchBuffer;
 import com.example.Meme.Website.models.NotificationModel;
-import com.example.Meme.Website.repository.notificationRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.Meme.Website.services.NotificationAggregationService;
+import com.example.Meme.Website.services.NotificationDeliveryService;
+import com.example.Meme.Website.services.NotificationService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,26 +24,33 @@ public class NotificationBatchScheduler {
     @Autowired
     private NotificationBatchBuffer notificationBatchBuffer;
     @Autowired
-    private notificationRepository notificationRepository;
+    private NotificationAggregationService notificationAggregationService;
     @Autowired
-    private ObjectMapper objectMapper;
+    private NotificationDeliveryService notificationDeliveryService;
+    @Autowired
+    private NotificationService notificationService;
 
     @Scheduled(fixedRate = 5000)
     public void processBufferedNotifications() {
         List<NotificationModel> notifications = notificationBatchBuffer.drainBatch();
         
         if(!notifications.isEmpty()){
-            notificationRepository.saveAll(notifications);
-            for(NotificationModel notification : notifications){
-                try{
-                    String json = objectMapper.writeValueAsString(notification);
-                    WebSocketSessionManager.sendToUser(notification.getReceiverUsername(), json);
-                }
-                catch(Exception e){
-                    e.printStackTrace();
-                }
+            // Plain notifications go out right away, the write below doesn't hold them up
+            notificationDeliveryService.deliver(notificationAggregationService.prepareImmediate(notifications));
+
+            Set<String> receivers = notifications.stream()
+                    .map(NotificationModel::getReceiverUsername)
+                    .collect(Collectors.toSet());
+            notificationService.beginUnreadWrites(receivers);
+            NotificationAggregationService.PersistResult result = null;
+            try {
+                result = notificationAggregationService.persist(notifications);
+            } finally {
+                notificationService.finishUnreadWrites(receivers, result != null ? result.newUnreadByReceiver() : Map.of());
             }
-            log.info("📣 Sent {} batched notifications", notifications.size());
+            notificationDeliveryService.deliver(result.rolledUp());
+
+            log.info("📣 Processed {} buffered notifications", notifications.size());
         }
     }
 }
@@ -0,0 +1,250 @@
+package com.example.Meme.Website.Scheduler;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.models.NotificationModel;
+import com.example.Meme.Website.services.NotificationRetentionPolicy;
+import com.example.Meme.Website.services.NotificationService;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Keeps the notifications collection bounded:
+//  - read notifications expire through a partial TTL index on expireAt (per-type lifetime, see the policy),
+//  - legacy read rows without an expireAt get one stamped,
+//  - unread notifications beyond the per-user cap are dropped oldest first,
+//  - optionally, old notifications of the archived types move to notificationsArchive as one compact
+//    document per user and month holding parallel arrays instead of one document per notification.
+// Every pass logs and keeps a report of what it removed and how much data size it gave back.
+@Component
+@Slf4j
+public class NotificationRetentionScheduler {
+
+    private static final String COLLECTION = "notifications";
+    private static final String ARCHIVE_COLLECTION = "notificationsArchive";
+    private static final String LOCK_KEY = "notif:retention:lock";
+    private static final int PAGE_SIZE = 1000;
+    private static final int MAX_CAPPED_USERS = 1000;
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM").withZone(ZoneOffset.UTC);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+    @Autowired
+    private NotificationRetentionPolicy retentionPolicy;
+    @Autowired
+    private NotificationService notificationService;
+
+    @Value("${notifications.retention.enabled:true}")
+    private boolean enabled;
+
+    private volatile Map<String, Object> lastReport = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(NotificationModel.class).ensureIndex(new Index()
+                    .on("expireAt", Sort.Direction.ASC)
+                    .named("read_expiry")
+                    .expire(0, TimeUnit.SECONDS)
+                    .partial(PartialIndexFilter.of(Criteria.where("isRead").is(true))));
+        } catch (Exception e) {
+            log.error("❌ Failed to create notification TTL index: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}")
+    public void runRetention() {
+        if (!enabled) return;
+
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "running", Duration.ofHours(1));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+
+        try {
+            long started = System.currentTimeMillis();
+            Map<String, Long> before = collectionStats(COLLECTION);
+
+            long stamped = stampLegacyReadRows();
+            long capped = capUnreadPerUser();
+            long archived = retentionPolicy.isArchiveEnabled() ? archiveOldNotifications() : 0;
+            long expiring = mongoTemplate.getCollection(COLLECTION).countDocuments(
+                    Filters.and(Filters.eq("isRead", true), Filters.lt("expireAt", new Date())));
+
+            Map<String, Long> after = collectionStats(COLLECTION);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("ranAt", new Date(started).toInstant().toString());
+            report.put("durationMs", System.currentTimeMillis() - started);
+            report.put("expiryStamped", stamped);
+            report.put("unreadCapped", capped);
+            report.put("archived", archived);
+            report.put("pendingTtlExpiry", expiring);
+            report.put("before", before);
+            report.put("after", after);
+            report.put("reclaimedDataBytes", before.getOrDefault("size", 0L) - after.getOrDefault("size", 0L));
+            report.put("reclaimedIndexBytes",
+                    before.getOrDefault("totalIndexSize", 0L) - after.getOrDefault("totalIndexSize", 0L));
+            if (retentionPolicy.isArchiveEnabled()) {
+                report.put("archive", collectionStats(ARCHIVE_COLLECTION));
+            }
+            lastReport = report;
+
+            log.info("🧹 Notification retention: stamped={}, capped={}, archived={}, reclaimed {} bytes",
+                    stamped, capped, archived, report.get("reclaimedDataBytes"));
+        } catch (Exception e) {
+            log.error("❌ Notification retention failed: {}", e.getMessage());
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    public Map<String, Object> getLastReport() {
+        return lastReport;
+    }
+
+    // Rows read before expireAt existed (or read through another path) would never match the TTL index
+    private long stampLegacyReadRows() {
+        return mongoTemplate.getCollection(COLLECTION).updateMany(
+                Filters.and(Filters.eq("isRead", true), Filters.exists("expireAt", false)),
+                List.of(retentionPolicy.expiryStage())).getModifiedCount();
+    }
+
+    private long capUnreadPerUser() {
+        int cap = retentionPolicy.getMaxUnreadPerUser();
+        if (cap <= 0) return 0;
+
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION);
+        List<Document> overCap = collection.aggregate(List.of(
+                Aggregates.match(Filters.eq("isRead", false)),
+                Aggregates.group("$receiverUsername", Accumulators.sum("count", 1)),
+                Aggregates.match(Filters.gt("count", cap)),
+                Aggregates.limit(MAX_CAPPED_USERS))).into(new ArrayList<>());
+
+        long removed = 0;
+        for (Document user : overCap) {
+            String username = user.getString("_id");
+            if (username == null) continue;
+
+            // Newest `cap` stay, served by the receiver_created index
+            List<Object> ids = collection.find(Filters.and(
+                            Filters.eq("receiverUsername", username), Filters.eq("isRead", false)))
+                    .sort(Sorts.descending("createdAt", "_id"))
+                    .skip(cap)
+                    .projection(Projections.include("_id"))
+                    .map(doc -> doc.get("_id"))
+                    .into(new ArrayList<>());
+            if (ids.isEmpty()) continue;
+
+            removed += collection.deleteMany(Filters.in("_id", ids)).getDeletedCount();
+            notificationService.invalidateUnreadCount(username);
+        }
+        return removed;
+    }
+
+    // Walks the _id index up to the cutoff so no extra createdAt index is needed. Bucket upserts go
+    // first; a crash between the two steps can only duplicate archive entries, never lose them.
+    private long archiveOldNotifications() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION);
+        MongoCollection<Document> archive = mongoTemplate.getCollection(ARCHIVE_COLLECTION);
+        Date cutoff = retentionPolicy.archiveCutoff();
+        List<String> types = new ArrayList<>(retentionPolicy.getArchiveTypes());
+
+        long archived = 0;
+        while (true) {
+            List<Document> page = collection.find(Filters.and(
+                            Filters.lt("_id", new ObjectId(cutoff)),
+                            Filters.lt("createdAt", cutoff),
+                            Filters.in("type", types)))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(PAGE_SIZE)
+                    .into(new ArrayList<>());
+            if (page.isEmpty()) break;
+
+            Map<String, List<Document>> buckets = new LinkedHashMap<>();
+            for (Document doc : page) {
+                Date createdAt = doc.getDate("createdAt");
+                String key = doc.getString("receiverUsername") + "|" + MONTH.format(createdAt.toInstant());
+                buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(doc);
+            }
+
+            List<UpdateOneModel<Document>> upserts = new ArrayList<>(buckets.size());
+            buckets.forEach((key, docs) -> {
+                Document first = docs.get(0);
+                upserts.add(new UpdateOneModel<>(
+                        Filters.eq("_id", key),
+                        Updates.combine(
+                                Updates.setOnInsert("u", first.getString("receiverUsername")),
+                                Updates.setOnInsert("m", MONTH.format(first.getDate("createdAt").toInstant())),
+                                Updates.inc("n", docs.size()),
+                                Updates.pushEach("t", docs.stream().map(d -> d.get("type")).toList()),
+                                Updates.pushEach("s", docs.stream().map(d -> d.get("senderUsername")).toList()),
+                                Updates.pushEach("k", docs.stream().map(d -> d.get("memeId")).toList()),
+                                Updates.pushEach("c", docs.stream().map(d -> d.get("createdAt")).toList()),
+                                Updates.pushEach("a", docs.stream().map(d -> d.get("actorCount", 1)).toList()),
+                                Updates.pushEach("r", docs.stream().map(d -> d.get("isRead", false)).toList())),
+                        new UpdateOptions().upsert(true)));
+            });
+            archive.bulkWrite(upserts, new BulkWriteOptions().ordered(false));
+
+            List<Object> ids = page.stream().map(d -> d.get("_id")).toList();
+            archived += collection.deleteMany(Filters.in("_id", ids)).getDeletedCount();
+            page.stream()
+                    .filter(d -> !d.getBoolean("isRead", false))
+                    .map(d -> d.getString("receiverUsername"))
+                    .distinct()
+                    .forEach(notificationService::invalidateUnreadCount);
+
+            if (page.size() < PAGE_SIZE) break;
+        }
+        return archived;
+    }
+
+    private Map<String, Long> collectionStats(String collection) {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        try {
+            Document result = mongoTemplate.executeCommand(new Document("collStats", collection));
+            for (String field : List.of("count", "size", "storageSize", "totalIndexSize")) {
+                Object value = result.get(field);
+                stats.put(field, value instanceof Number number ? number.longValue() : 0L);
+            }
+        } catch (Exception e) {
+            log.error("❌ collStats failed for {}: {}", collection, e.getMessage());
+        }
+        return stats;
+    }
+}
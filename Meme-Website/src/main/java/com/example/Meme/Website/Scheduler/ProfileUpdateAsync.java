@@ -1,5 +1,6 @@
 package com.example.Meme.Website.Scheduler;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,8 @@ import com.example.Meme.Website.models.Comments;
 import com.example.Meme.Website.models.FollowersModel;
 import com.example.Meme.Website.models.Meme;
 import com.example.Meme.Website.models.userModel;
+import com.example.Meme.Website.services.CacheInvalidationBus;
+import com.example.Meme.Website.services.ChatInboxService;
 
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -24,9 +27,15 @@ public class ProfileUpdateAsync {
     
     @Autowired
     private MongoTemplate mongoTemplate;
+    @Autowired
+    private ChatInboxService chatInboxService;
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
 
     @Async
     public void propagate(String userId, Map<String, String> updates) {
+        chatInboxService.updatePeerProfile(userId, updates);
+
         if (updates.containsKey("profilePictureUrl")) {
             String newPic = updates.get("profilePictureUrl");
             updateMemeProfilePictures(userId, newPic);
@@ -43,6 +52,8 @@ public class ProfileUpdateAsync {
             updateFollowerUsernameInUserModel(userId, newUsername);
         }
 
+        // After the memes are updated, so caches patched from the event match what Mongo now holds
+        cacheInvalidationBus.userUpdated(userId, new HashMap<>(updates));
         log.info("🔁 Async propagation done for userId: {}", userId);
     }
 
@@ -0,0 +1,20 @@
+package com.example.Meme.Website.Scheduler;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.WebSockets.RoomCounterAggregator;
+
+@Component
+public class RoomCounterScheduler {
+
+    @Autowired
+    private RoomCounterAggregator roomCounterAggregator;
+
+    // Ticks at the minimum interval, rooms decide themselves whether they are due.
+    @Scheduled(fixedRateString = "${websocket.counters.min-interval-ms:200}")
+    public void flushRoomCounters() {
+        roomCounterAggregator.flush();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.Meme.Website.Scheduler;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.WebSockets.TypingTracker;
+
+@Component
+public class TypingExpiryScheduler {
+
+    @Autowired
+    private TypingTracker typingTracker;
+
+    @Scheduled(fixedRate = 1000)
+    public void expireTypingIndicators() {
+        typingTracker.expireStale();
+    }
+}
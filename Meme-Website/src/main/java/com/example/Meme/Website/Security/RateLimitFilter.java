@@ -20,6 +20,7 @@ import jakarta.servlet.http.HttpServletResponse;
 public class RateLimitFilter implements Filter {
 
     @Autowired private RateLimiterService rateLimiterService;
+    @Autowired private RateLimitRouteMatcher routeMatcher;
 
     private static final Set<String> EXCLUDED_PATHS = Set.of(
         "/auth/login", "/auth/register", "/auth/forgot-password", "/auth/reset-password", "/health/check"
@@ -41,7 +42,7 @@ public class RateLimitFilter implements Filter {
 
         String clientKey = extractClientKey(request);
 
-        String bucketType = mapPathToBucketType(path);
+        String bucketType = routeMatcher.resolve(path);
 
         if (!rateLimiterService.isAllowed(bucketType, clientKey)) {
             long retryAfter = rateLimiterService.getRetryAfter(bucketType, clientKey);
@@ -71,45 +72,4 @@ public class RateLimitFilter implements Filter {
         return "ip:" + request.getRemoteAddr();
     }
 
-    // private String mapPathToBucketType(String path) {
-    //     if (path.startsWith("/user/profile") && path.contains("update")) return "api:write";
-    //     if (path.startsWith("/user/profile")) return "api:read";
-    //     if (path.startsWith("/meme/upload")) return "api:upload";
-    //     if (path.startsWith("/api/meme") || path.startsWith("/api/comments") || path.contains("/saved") || path.contains("/liked"))
-    //         return "api:scroll";
-
-    //     return "api:read"; // default fallback
-    // }
-
-    private String mapPathToBucketType(String path) {
-    if (path.startsWith("/auth")) return "api:auth";
-    if (path.startsWith("/token")) return "api:token";
-
-    if (path.startsWith("/upload/presign-temp") || path.startsWith("/upload/meme"))
-        return "api:upload";
-    if (path.startsWith("/upload/profile")) return "api:write";
-
-    if (path.startsWith("/memes/delete")) return "api:delete";
-    if (path.startsWith("/memes/search") || path.startsWith("/memes/discover") || path.startsWith("/memes/feed"))
-        return "api:scroll";
-    if (path.startsWith("/memes/") && (path.contains("/liked") || path.contains("/saved")))
-        return "api:scroll";
-    if (path.startsWith("/memes/") && (path.contains("/comments") || path.contains("/memepage")))
-        return "api:read";
-
-    if (path.startsWith("/memes/")) return "api:read";
-
-    if (path.startsWith("/profile/") && path.contains("user-memes"))
-        return "api:read";
-    if (path.startsWith("/profile/") && path.matches(".*/(followers|following).*"))
-        return "api:read";
-    if (path.startsWith("/profile/")) return "api:read";
-
-    if (path.startsWith("/notifications") && path.contains("mark-multiple-read"))
-        return "api:write";
-    if (path.startsWith("/notifications")) return "api:read";
-
-    return "api:read"; // default fallback
-}
-
 }
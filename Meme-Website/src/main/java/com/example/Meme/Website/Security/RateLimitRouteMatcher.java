@@ -0,0 +1,195 @@
+package com.example.Meme.Website.Security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.Properties.RateLimitProperties;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// Route patterns are prefixes ("/memes/search" also matches "/memes/search/x") and "*" consumes
+// exactly one path segment. The longest matching pattern wins, so rule order does not matter.
+// Rules come from rate-limiting.routes, overridden per pattern by the Redis hash "ratelimit:routes"
+// (pattern -> bucket). Both are re-read on a fixed delay and the trie is rebuilt only when they changed,
+// so an HSET/HDEL on that hash changes routing on every node without a restart.
+@Component
+@Slf4j
+public class RateLimitRouteMatcher {
+
+    private static final String DEFAULT_BUCKET = "api:read";
+    private static final String ROUTES_PROPERTY = "rate-limiting.routes";
+    private static final String ROUTE_OVERRIDES_KEY = "ratelimit:routes";
+
+    private static final List<RateLimitProperties.Route> DEFAULT_ROUTES = List.of(
+            new RateLimitProperties.Route("/auth", "api:auth"),
+            new RateLimitProperties.Route("/token", "api:token"),
+            new RateLimitProperties.Route("/upload/presign-temp", "api:upload"),
+            new RateLimitProperties.Route("/upload/meme", "api:upload"),
+            new RateLimitProperties.Route("/upload/profile", "api:write"),
+            new RateLimitProperties.Route("/memes/delete", "api:delete"),
+            new RateLimitProperties.Route("/memes/search", "api:scroll"),
+            new RateLimitProperties.Route("/memes/discover", "api:scroll"),
+            new RateLimitProperties.Route("/memes/feed", "api:scroll"),
+            new RateLimitProperties.Route("/memes/*/liked", "api:scroll"),
+            new RateLimitProperties.Route("/memes/*/saved", "api:scroll"),
+            new RateLimitProperties.Route("/memes/", "api:read"),
+            new RateLimitProperties.Route("/profile/", "api:read"),
+            new RateLimitProperties.Route("/notifications/mark-multiple-read", "api:write"),
+            new RateLimitProperties.Route("/notifications", "api:read"));
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+    @Autowired
+    private Environment environment;
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    private volatile Node root = compile(DEFAULT_ROUTES);
+    private volatile Map<String, String> compiledRules = Map.of();
+
+    @PostConstruct
+    public void init() {
+        reload(rateLimitProperties.getRoutes());
+        reload();
+    }
+
+    // Re-reads the routes from the current Environment and the Redis overrides.
+    @Scheduled(fixedDelayString = "${rate-limiting.routes-refresh-ms:30000}",
+            initialDelayString = "${rate-limiting.routes-refresh-ms:30000}")
+    public void reload() {
+        List<RateLimitProperties.Route> routes = Binder.get(environment)
+                .bind(ROUTES_PROPERTY, Bindable.listOf(RateLimitProperties.Route.class))
+                .orElse(null);
+
+        try {
+            reload(routes, redisTemplate.opsForHash().entries(ROUTE_OVERRIDES_KEY));
+        } catch (Exception e) {
+            log.error("❌ Failed to read rate limit route overrides, keeping the current rules: {}", e.getMessage());
+        }
+    }
+
+    public void reload(List<RateLimitProperties.Route> routes) {
+        reload(routes, Map.of());
+    }
+
+    public void reload(List<RateLimitProperties.Route> routes, Map<?, ?> overrides) {
+        Map<String, String> rules = new LinkedHashMap<>();
+        for (RateLimitProperties.Route route : routes == null || routes.isEmpty() ? DEFAULT_ROUTES : routes) {
+            if (route.getPattern() != null && route.getBucket() != null) {
+                rules.put(route.getPattern(), route.getBucket());
+            }
+        }
+        overrides.forEach((pattern, bucket) -> rules.put(pattern.toString(), bucket.toString()));
+
+        if (rules.equals(compiledRules)) {
+            return;
+        }
+
+        List<RateLimitProperties.Route> effective = new ArrayList<>(rules.size());
+        rules.forEach((pattern, bucket) -> effective.add(new RateLimitProperties.Route(pattern, bucket)));
+        root = compile(effective);
+        compiledRules = rules;
+        log.info("🚦 Compiled {} rate limit routes ({} overrides)", effective.size(), overrides.size());
+    }
+
+    public String resolve(String path) {
+        if (path == null) {
+            return DEFAULT_BUCKET;
+        }
+        String bucket = match(root, path, 0);
+        return bucket != null ? bucket : DEFAULT_BUCKET;
+    }
+
+    private static String match(Node node, String path, int index) {
+        String deeper = null;
+
+        if (index < path.length()) {
+            Node literal = node.child(path.charAt(index));
+            if (literal != null) {
+                deeper = match(literal, path, index + 1);
+            }
+
+            if (deeper == null && node.wildcard != null && path.charAt(index) != '/') {
+                int end = path.indexOf('/', index);
+                deeper = match(node.wildcard, path, end < 0 ? path.length() : end);
+            }
+        }
+
+        return deeper != null ? deeper : node.bucket;
+    }
+
+    private static Node compile(List<RateLimitProperties.Route> routes) {
+        Builder rootBuilder = new Builder();
+        for (RateLimitProperties.Route route : routes) {
+            if (route.getPattern() == null || route.getBucket() == null) {
+                continue;
+            }
+
+            Builder current = rootBuilder;
+            String pattern = route.getPattern();
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '*') {
+                    if (current.wildcard == null) {
+                        current.wildcard = new Builder();
+                    }
+                    current = current.wildcard;
+                } else {
+                    current = current.children.computeIfAbsent(c, k -> new Builder());
+                }
+            }
+            current.bucket = route.getBucket();
+        }
+        return rootBuilder.build();
+    }
+
+    private static final class Builder {
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        private Builder wildcard;
+        private String bucket;
+
+        private Node build() {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new Node(keys, nodes, wildcard != null ? wildcard.build() : null, bucket);
+        }
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final Node wildcard;
+        private final String bucket;
+
+        private Node(char[] keys, Node[] children, Node wildcard, String bucket) {
+            this.keys = keys;
+            this.children = children;
+            this.wildcard = wildcard;
+            this.bucket = bucket;
+        }
+
+        private Node child(char c) {
+            int idx = Arrays.binarySearch(keys, c);
+            return idx >= 0 ? children[idx] : null;
+        }
+    }
+}
@@ -41,6 +41,7 @@ public class SecurityConfig {
                                                                 "/health/check",
                                                                 "/ws/**")
                                                 .permitAll()
+                                                .requestMatchers("/health/**").hasAuthority("ADMIN")
                                                 .anyRequest().authenticated())
                                 .sessionManagement(session -> session
                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
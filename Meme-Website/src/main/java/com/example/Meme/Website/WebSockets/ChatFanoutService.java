@@ -0,0 +1,115 @@
+package com.example.Meme.Website.WebSockets;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Delivers one chat message to every participant of a room. The sender view and the receiver view
+// are each encoded once; local sessions are fed straight into their outbound queues on the calling
+// thread, while the cross-node part (presence lookup for all recipients in one pipelined round trip,
+// one publish per node) runs on a room-striped lane so the inbound worker never waits on Redis and
+// messages of one room keep their order across nodes.
+@Component
+@Slf4j
+public class ChatFanoutService {
+
+    @Autowired
+    private WebSocketSessionManager webSocketSessionManager;
+    @Autowired
+    private WebSocketClusterRouter clusterRouter;
+    @Autowired
+    private FrameEncoder frameEncoder;
+
+    @Value("${websocket.fanout.lanes:2}")
+    private int laneCount;
+
+    private ExecutorService[] lanes;
+
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong localDeliveries = new AtomicLong();
+    private final AtomicLong remoteRecipients = new AtomicLong();
+    private final AtomicLong offlineRecipients = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = "ws-fanout-" + (i + 1);
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+
+    public void fanOut(String chatRoomId, Collection<String> participants, String senderId,
+            Object senderEvent, Object receiverEvent) throws IOException {
+        TextMessage senderFrame = frameEncoder.encode(senderEvent);
+        TextMessage receiverFrame = frameEncoder.encode(receiverEvent);
+        messages.incrementAndGet();
+
+        // Every device of the sender gets its own view, so other tabs stay in sync
+        int delivered = webSocketSessionManager.sendToLocalUser(senderId, senderFrame);
+
+        List<String> recipients = new ArrayList<>(participants.size());
+        List<String> notLocal = new ArrayList<>();
+        for (String participantId : participants) {
+            if (participantId.equals(senderId)) {
+                continue;
+            }
+            recipients.add(participantId);
+            int sessions = webSocketSessionManager.sendToLocalUser(participantId, receiverFrame);
+            if (sessions == 0) {
+                notLocal.add(participantId);
+            }
+            delivered += sessions;
+        }
+        localDeliveries.addAndGet(delivered);
+
+        lanes[Math.floorMod(chatRoomId.hashCode(), lanes.length)].execute(() -> {
+            try {
+                clusterRouter.publishToUser(senderId, senderFrame.getPayload());
+                Set<String> present = clusterRouter.publishToUsers(recipients, receiverFrame.getPayload());
+
+                long offline = notLocal.stream().filter(userId -> !present.contains(userId)).count();
+                remoteRecipients.addAndGet(notLocal.size() - offline);
+                offlineRecipients.addAndGet(offline);
+            } catch (Exception e) {
+                log.error("❌ Cross-node fan-out failed for room {}: {}", chatRoomId, e.getMessage());
+            }
+        });
+    }
+
+    public Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("messages", messages.get());
+        metrics.put("localDeliveries", localDeliveries.get());
+        metrics.put("remoteRecipients", remoteRecipients.get());
+        metrics.put("offlineRecipients", offlineRecipients.get());
+        return metrics;
+    }
+}
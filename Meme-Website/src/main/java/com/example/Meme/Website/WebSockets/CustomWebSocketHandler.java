@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -18,18 +19,19 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 
 import com.example.Meme.Website.config.RateLimitConfig;
+import com.example.Meme.Website.Exceptions.CustomExceptions.InvalidFrameException;
+import com.example.Meme.Website.dto.ChatMessageEvent;
 import com.example.Meme.Website.dto.ChatMessageResponse;
 import com.example.Meme.Website.models.ChatMessage;
 import com.example.Meme.Website.models.ChatRoom;
-import com.example.Meme.Website.models.ChatRoomSettings;
 import com.example.Meme.Website.models.Comments;
 import com.example.Meme.Website.models.MessageType;
 import com.example.Meme.Website.services.ChatMessageService;
+import com.example.Meme.Website.services.ChatRoomCache;
 import com.example.Meme.Website.services.ChatRoomService;
 import com.example.Meme.Website.services.ProfileService;
 import com.example.Meme.Website.services.RateLimiterService;
 import com.example.Meme.Website.services.memeService;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -44,6 +46,12 @@ public class CustomWebSocketHandler implements WebSocketHandler {
     private final RateLimitConfig rateLimitConfig;
     private final ChatMessageService chatMessageService;
     private final ChatRoomService chatRoomService;
+    private final FrameEncoder frameEncoder;
+    private final InboundMessageDecoder inboundMessageDecoder;
+    private final InboundDispatcher inboundDispatcher;
+    private final TypingTracker typingTracker;
+    private final ChatFanoutService chatFanoutService;
+    private final Map<InboundMessage.Type, InboundHandler> handlers;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -54,7 +62,11 @@ public class CustomWebSocketHandler implements WebSocketHandler {
             RateLimiterService rateLimiterService,
             RateLimitConfig rateLimitConfig,
             ChatMessageService chatMessageService,
-            ChatRoomService chatRoomService) {
+            ChatRoomService chatRoomService,
+            FrameEncoder frameEncoder,
+            InboundMessageDecoder inboundMessageDecoder,
+            InboundDispatcher inboundDispatcher,
+            TypingTracker typingTracker, ChatFanoutService chatFanoutService) {
         this.memeService = memeService;
         this.profileService = profileService;
         this.webSocketSessionManager = webSocketSessionManager;
@@ -62,6 +74,12 @@ public class CustomWebSocketHandler implements WebSocketHandler {
         this.rateLimitConfig = rateLimitConfig;
         this.chatMessageService = chatMessageService;
         this.chatRoomService = chatRoomService;
+        this.frameEncoder = frameEncoder;
+        this.inboundMessageDecoder = inboundMessageDecoder;
+        this.inboundDispatcher = inboundDispatcher;
+        this.typingTracker = typingTracker;
+        this.chatFanoutService = chatFanoutService;
+        this.handlers = buildHandlers();
     }
 
     @Override
@@ -70,7 +88,7 @@ public class CustomWebSocketHandler implements WebSocketHandler {
         String userId = (String) attributes.get("userId");
 
         if (userId != null) {
-            WebSocketSessionManager.registerUserSession(userId, session);
+            webSocketSessionManager.registerUserSession(userId, session);
         } else {
             System.out.println("Guest user Connected");
         }
@@ -78,9 +96,23 @@ public class CustomWebSocketHandler implements WebSocketHandler {
 
     @Override
     public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws IOException {
-        JsonNode json = objectMapper.readTree(message.getPayload().toString());
+        InboundMessage inbound;
+        try {
+            inbound = inboundMessageDecoder.decode(message);
+        } catch (InvalidFrameException e) {
+            webSocketSessionManager.sendToSession(session, new TextMessage(
+                    objectMapper.writeValueAsString(Map.of("error", e.getMessage()))));
+            return;
+        }
 
-        String type = json.get("type").asText();
+        // Handlers hit Mongo/Redis, keep that work (rate limit check included) off the I/O thread.
+        if (!inboundDispatcher.submit(session, inbound.type(), () -> process(session, inbound))) {
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"TOO_MANY_IN_FLIGHT\"}"));
+        }
+    }
+
+    private void process(WebSocketSession session, InboundMessage inbound) throws IOException {
+        InboundMessage.Type type = inbound.type();
         Map<String, Object> attributes = session.getAttributes();
         String username = (String) attributes.get("username");
         boolean isGuest = Boolean.TRUE.equals(attributes.get("isGuest"));
@@ -95,94 +127,53 @@ public class CustomWebSocketHandler implements WebSocketHandler {
             clientKey = "ip:" + ip;
         }
 
-        String bucketType = mapTypeToBucketType(type);
+        String bucketType = type.getBucketType();
 
-        if (!rateLimiterService.isAllowed(bucketType, clientKey)) {
+        if (bucketType != null && !rateLimiterService.isAllowed(bucketType, clientKey)) {
             long retryAfter = rateLimiterService.getRetryAfter(bucketType, clientKey);
-            session.sendMessage(new TextMessage(
+            webSocketSessionManager.sendToSession(session, new TextMessage(
                     "{\"error\": \"RATE_LIMIT_EXCEEDED\", \"retryAfter\": " + retryAfter + "}"));
             return;
         }
 
-        switch (type) {
-            case "LIKE":
-            case "SAVE":
-            case "COMMENT":
-            case "FOLLOW":
-                if (isGuest) {
-                    session.sendMessage(new TextMessage("{\"error\": \"LOGIN_REQUIRED\"}"));
-                    return;
-                }
-                break;
-            default:
+        if (type.isLoginRequired() && isGuest) {
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"LOGIN_REQUIRED\"}"));
+            return;
         }
 
-        switch (type) {
-            case "JOIN_POST":
-                webSocketSessionManager.registerPostSession(json.get("postId").asText(), session);
-                break;
-
-            case "LEAVE_POST":
-                webSocketSessionManager.removePostSession(json.get("postId").asText(), session);
-                break;
-
-            case "LIKE":
-                handleLikeEvent(json, username);
-                break;
-
-            case "SAVE":
-                handleSaveEvent(json, username);
-                break;
-
-            case "COMMENT":
-                handleCommentEvent(json, session, username);
-                break;
-
-            case "FOLLOW":
-                handleFollowEvent(json);
-                break;
-
-            case "CHAT":
-                handleChatMessage(json, session);
-                break;
-
-            // case "REACTION":
-            // handleReaction(json, session);
-            // break;
-
-            case "EDIT_MESSAGE":
-                handleEditMessage(json, session);
-                break;
-
-            case "DELETE_MESSAGE":
-                handleDeleteMessage(json, session);
-                break;
-
-            // case "READ_RECEIPT":
-            // handleReadReceipt(json, session);
-            // break;
-
-            case "MARK_AS_READ":
-                handleMarkAsRead(json, session);
-                break;
+        handlers.get(type).handle(session, inbound, username);
+    }
 
-            case "TYPING_INDICATOR":
-                handleTypingIndicator(json, session);
-                break;
-            default:
-                session.sendMessage(new TextMessage("{\"error\":\"Unknown type: " + type + "\"}"));
-        }
+    @FunctionalInterface
+    private interface InboundHandler {
+        void handle(WebSocketSession session, InboundMessage message, String username) throws IOException;
     }
 
-    private String mapTypeToBucketType(String type) {
-        return switch (type) {
-            case "COMMENT" -> "ws:comment";
-            case "LIKE" -> "ws:like";
-            case "SAVE" -> "ws:save";
-            case "JOIN_POST", "LEAVE_POST" -> "ws:session";
-            case "FOLLOW" -> "ws:follow";
-            default -> "ws:default";
-        };
+    private Map<InboundMessage.Type, InboundHandler> buildHandlers() {
+        Map<InboundMessage.Type, InboundHandler> table = new EnumMap<>(InboundMessage.Type.class);
+        table.put(InboundMessage.Type.JOIN_POST, (session, message, username) -> webSocketSessionManager
+                .registerPostSession(((InboundMessage.JoinPost) message).postId(), session));
+        table.put(InboundMessage.Type.LEAVE_POST, (session, message, username) -> webSocketSessionManager
+                .removePostSession(((InboundMessage.LeavePost) message).postId(), session));
+        table.put(InboundMessage.Type.LIKE,
+                (session, message, username) -> handleLikeEvent((InboundMessage.Like) message, session, username));
+        table.put(InboundMessage.Type.SAVE,
+                (session, message, username) -> handleSaveEvent((InboundMessage.Save) message, session, username));
+        table.put(InboundMessage.Type.COMMENT,
+                (session, message, username) -> handleCommentEvent((InboundMessage.Comment) message, session, username));
+        table.put(InboundMessage.Type.FOLLOW,
+                (session, message, username) -> handleFollowEvent((InboundMessage.Follow) message));
+        table.put(InboundMessage.Type.CHAT,
+                (session, message, username) -> handleChatMessage((InboundMessage.Chat) message, session));
+        table.put(InboundMessage.Type.EDIT_MESSAGE,
+                (session, message, username) -> handleEditMessage((InboundMessage.EditMessage) message, session));
+        table.put(InboundMessage.Type.DELETE_MESSAGE,
+                (session, message, username) -> handleDeleteMessage((InboundMessage.DeleteMessage) message, session));
+        table.put(InboundMessage.Type.MARK_AS_READ,
+                (session, message, username) -> handleMarkAsRead((InboundMessage.MarkAsRead) message, session));
+        table.put(InboundMessage.Type.TYPING_INDICATOR,
+                (session, message, username) -> handleTypingIndicator((InboundMessage.TypingIndicator) message, session));
+        return table;
     }
 
     // private void handleChatMessage(JsonNode json, WebSocketSession session)
@@ -329,99 +320,106 @@ public class CustomWebSocketHandler implements WebSocketHandler {
     // }
     // }
 
-    private void handleChatMessage(JsonNode json, WebSocketSession session) throws IOException {
+    private void handleChatMessage(InboundMessage.Chat chat, WebSocketSession session) throws IOException {
         String senderId = (String) session.getAttributes().get("userId");
         String senderName = (String) session.getAttributes().get("username");
 
         if (senderId == null || senderName == null) {
-            session.sendMessage(new TextMessage("{\"error\": \"AUTH_REQUIRED\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"AUTH_REQUIRED\"}"));
             return;
         }
 
-        String chatRoomId = json.has("chatRoomId") ? json.get("chatRoomId").asText() : null;
-        String messageText = json.has("message") ? json.get("message").asText() : null;
-        String messageTypeStr = json.has("messageType") ? json.get("messageType").asText() : "TEXT";
-        String mediaUrl = json.has("mediaUrl") ? json.get("mediaUrl").asText() : null;
-        String repliedToMessageId = json.has("repliedToMessageId") ? json.get("repliedToMessageId").asText() : null;
-        String toUsername = json.has("toUsername") ? json.get("toUsername").asText() : null;
+        String chatRoomId = chat.chatRoomId();
+        String messageText = chat.message();
+        String messageTypeStr = chat.messageType();
+        String mediaUrl = chat.mediaUrl();
+        String repliedToMessageId = chat.repliedToMessageId();
+        String toUsername = chat.toUsername();
+
+        MessageType messageType;
+        try {
+            messageType = MessageType.valueOf(messageTypeStr.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\":\"INVALID_MESSAGE_TYPE\"}"));
+            return;
+        }
 
-        Map<String, String> senderDetails = profileService.getUserDetailsByUsername(senderName);
-        Map<String, String> receiverDetails = profileService.getUserDetailsByUsername(toUsername);
+        Map<String, String> senderDetails = profileService.getUserDetailsById(senderId);
+        Map<String, String> receiverDetails = toUsername != null
+                ? profileService.getUserDetailsByUsername(toUsername)
+                : null;
         Set<String> participants;
 
         // 1️⃣ Handle 1:1 Chat Room Creation
         if (chatRoomId == null || chatRoomId.isEmpty() || chatRoomId.startsWith("local-")) {
-            if (!json.has("toUsername")) {
-                session.sendMessage(new TextMessage("{\"error\":\"MISSING_TO_USERNAME_OR_CHATROOMID\"}"));
+            if (toUsername == null) {
+                webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\":\"MISSING_TO_USERNAME_OR_CHATROOMID\"}"));
                 return;
             }
 
             // Fetch sender & receiver details ONCE
             if (senderDetails == null) {
-                session.sendMessage(new TextMessage("{\"error\":\"SENDER_NOT_FOUND\"}"));
+                webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\":\"SENDER_NOT_FOUND\"}"));
                 return;
             }
             if (receiverDetails == null) {
-                session.sendMessage(new TextMessage("{\"error\":\"RECEIVER_NOT_FOUND\"}"));
+                webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\":\"RECEIVER_NOT_FOUND\"}"));
                 return;
             }
 
             if (receiverDetails == null || receiverDetails.get("userId") == null) {
-                session.sendMessage(new TextMessage("{\"error\":\"USER_NOT_FOUND\"}"));
+                webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\":\"USER_NOT_FOUND\"}"));
                 return;
             }
 
             String receiverId = receiverDetails.get("userId");
             if (receiverId.equals(senderId)) {
-                session.sendMessage(new TextMessage("{\"error\":\"CANNOT_CHAT_WITH_SELF\"}"));
+                webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\":\"CANNOT_CHAT_WITH_SELF\"}"));
                 return;
             }
 
             List<String> directParticipants = Arrays.asList(senderId, receiverId);
             Collections.sort(directParticipants);
 
-            Optional<ChatRoom> existingRoom = chatRoomService.findOneToOneRoom(senderId, receiverId);
-            ChatRoom chatRoom;
+            Optional<ChatRoomCache.RoomSnapshot> existingRoom = chatRoomService.getCachedOneToOneRoom(senderId, receiverId);
             if (existingRoom.isPresent()) {
-                chatRoom = existingRoom.get();
+                chatRoomId = existingRoom.get().id();
+                participants = existingRoom.get().participants();
             } else {
-                chatRoom = new ChatRoom();
+                ChatRoom chatRoom = new ChatRoom();
                 chatRoom.setParticipants(new LinkedHashSet<>(directParticipants));
                 chatRoom.setGroupChat(false);
                 chatRoom.setCreatedAt(new Date());
                 chatRoom.setLastUpdated(new Date());
                 chatRoom = chatRoomService.saveChatRoom(chatRoom);
+                chatRoomService.createDefaultSettings(chatRoom);
 
-                for (String userId : directParticipants) {
-                    ChatRoomSettings settings = new ChatRoomSettings();
-                    settings.setChatRoomId(chatRoom.getId());
-                    settings.setUserId(userId);
-                    settings.setMuted(false);
-                    settings.setPinned(false);
-                    settings.setTheme("default");
-                    settings.setWallpaper(null);
-                    settings.setLastSeenAt(null);
-                    chatRoomService.saveChatRoomSettings(settings);
-                }
+                chatRoomId = chatRoom.getId();
+                participants = chatRoom.getParticipants();
             }
 
-            chatRoomId = chatRoom.getId();
-            participants = chatRoom.getParticipants();
-
         } else {
-            Optional<ChatRoom> roomOpt = chatRoomService.getChatRoomById(chatRoomId);
+            Optional<ChatRoomCache.RoomSnapshot> roomOpt = chatRoomService.getCachedChatRoom(chatRoomId);
             if (roomOpt.isEmpty()) {
-                session.sendMessage(new TextMessage("{\"error\":\"INVALID_CHAT_ROOM\"}"));
+                webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\":\"INVALID_CHAT_ROOM\"}"));
                 return;
             }
-            ChatRoom chatRoom = roomOpt.get();
-            participants = chatRoom.getParticipants();
+            participants = roomOpt.get().participants();
 
             if (!participants.contains(senderId)) {
-                session.sendMessage(new TextMessage("{\"error\": \"NOT_A_PARTICIPANT\"}"));
+                webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"NOT_A_PARTICIPANT\"}"));
                 return;
             }
 
+            if (receiverDetails == null) {
+                // Display info of the other side comes from the cache, no username needed from the client.
+                String otherId = participants.stream().filter(id -> !id.equals(senderId)).findFirst().orElse(senderId);
+                receiverDetails = profileService.getUserDetailsById(otherId);
+            }
+            if (senderDetails == null || receiverDetails == null) {
+                webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\":\"USER_NOT_FOUND\"}"));
+                return;
+            }
         }
 
         // 2️⃣ Build & Save Message
@@ -429,7 +427,7 @@ public class CustomWebSocketHandler implements WebSocketHandler {
         chatMessage.setChatRoomId(chatRoomId);
         chatMessage.setSenderId(senderId);
         chatMessage.setMessageText(messageText);
-        chatMessage.setMessageType(MessageType.valueOf(messageTypeStr.toUpperCase()));
+        chatMessage.setMessageType(messageType);
         chatMessage.setMediaUrl(mediaUrl);
         chatMessage.setTimestamp(new Date());
         chatMessage.setRead(false);
@@ -437,9 +435,9 @@ public class CustomWebSocketHandler implements WebSocketHandler {
         chatMessage.setEditedAt(null);
         chatMessage.setRepliedToMessageId(repliedToMessageId);
 
-        ChatMessage savedMessage = chatMessageService.saveMessage(chatMessage);
+        ChatMessage savedMessage = chatMessageService.enqueueMessage(chatMessage);
 
-        // 3️⃣ Send to Sender
+        // 3️⃣ Sender view
         ChatMessageResponse senderResponse = new ChatMessageResponse(
                 savedMessage.getId(),
                 savedMessage.getChatRoomId(),
@@ -452,69 +450,35 @@ public class CustomWebSocketHandler implements WebSocketHandler {
                 senderDetails.get("username"),
                 senderDetails.get("profilePictureUrl"));
 
-        Map<String, Object> payload = objectMapper.convertValue(senderResponse,
-                new TypeReference<Map<String, Object>>() {
-                });
-        payload.put("type", "CHAT"); // add extra field
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(payload)));
-
-        // 4️⃣ Send to Receiver(s)
-        for (String participantId : participants) {
-            if (!participantId.equals(senderId)) {
-                WebSocketSession participantSession = WebSocketSessionManager.getSession(participantId);
-                if (participantSession != null && participantSession.isOpen()) {
-
-                    ChatMessageResponse receiverResponse = new ChatMessageResponse(
-                            savedMessage.getId(),
-                            savedMessage.getChatRoomId(),
-                            savedMessage.getMessageText(),
-                            savedMessage.getMessageType(),
-                            savedMessage.getMediaUrl(),
-                            savedMessage.getTimestamp().toInstant().toString(),
-                            false, // isOwn
-                            senderId, // important: receiver must see who sent it
-                            senderDetails.get("username"),
-                            senderDetails.get("profilePictureUrl"));
-
-                    Map<String, Object> receiverpayload = objectMapper.convertValue(
-                            receiverResponse,
-                            new TypeReference<Map<String, Object>>() {
-                            });
-                    payload.put("type", "CHAT");
-
-                    participantSession.sendMessage(
-                            new TextMessage(objectMapper.writeValueAsString(receiverpayload)));
-
-                    // participantSession.sendMessage(
-                    // new TextMessage(objectMapper.writeValueAsString(receiverResponse)));
-                }
-            }
-        }
+        // 4️⃣ Receiver view - identical for everyone, so it is encoded once by the fan-out
+        ChatMessageResponse receiverResponse = new ChatMessageResponse(
+                savedMessage.getId(),
+                savedMessage.getChatRoomId(),
+                savedMessage.getMessageText(),
+                savedMessage.getMessageType(),
+                savedMessage.getMediaUrl(),
+                savedMessage.getTimestamp().toInstant().toString(),
+                false, // isOwn
+                senderId, // important: receiver must see who sent it
+                senderDetails.get("username"),
+                senderDetails.get("profilePictureUrl"));
 
-        // 5️⃣ Update Recent Chat
-        for (String participantId : participants) {
-            ObjectNode updatePayload = objectMapper.createObjectNode();
-            updatePayload.put("type", "UPDATE_RECENT_CHAT");
-            updatePayload.put("chatRoomId", chatRoomId);
+        // 5️⃣ Recent chat row rides on the same frame - sender sees the receiver, everyone else sees the sender
+        ObjectNode senderRecentChat = objectMapper.createObjectNode();
+        senderRecentChat.put("chatRoomId", chatRoomId);
+        senderRecentChat.put("displayName", receiverDetails.get("username"));
+        senderRecentChat.put("displayPicture", receiverDetails.get("profilePictureUrl"));
+        senderRecentChat.put("message", messageText);
 
-            // if participant is sender → show receiver info, else → show sender info
-            if (participantId.equals(senderId)) {
-                updatePayload.put("displayName", receiverDetails.get("username"));
-                updatePayload.put("displayPicture", receiverDetails.get("profilePictureUrl"));
-            } else {
-                updatePayload.put("displayName", senderDetails.get("username"));
-                updatePayload.put("displayPicture", senderDetails.get("profilePictureUrl"));
-            }
+        ObjectNode receiverRecentChat = senderRecentChat.deepCopy();
+        receiverRecentChat.put("displayName", senderDetails.get("username"));
+        receiverRecentChat.put("displayPicture", senderDetails.get("profilePictureUrl"));
 
-            updatePayload.put("message", messageText);
+        chatFanoutService.fanOut(chatRoomId, participants, senderId,
+                new ChatMessageEvent("CHAT", senderResponse, senderRecentChat),
+                new ChatMessageEvent("CHAT", receiverResponse, receiverRecentChat));
 
-            WebSocketSession participantSession = WebSocketSessionManager.getSession(participantId);
-            if (participantSession != null && participantSession.isOpen()) {
-                participantSession.sendMessage(new TextMessage(updatePayload.toString()));
-            }
-        }
-
-        chatRoomService.updateLastMessage(chatRoomId, savedMessage.getId(), savedMessage.getTimestamp());
+        typingTracker.update(chatRoomId, senderId, false);
     }
 
     // private void handleReaction(JsonNode json, WebSocketSession session) throws
@@ -579,32 +543,32 @@ public class CustomWebSocketHandler implements WebSocketHandler {
     // }
     // }
 
-    private void handleEditMessage(JsonNode json, WebSocketSession session) throws IOException {
+    private void handleEditMessage(InboundMessage.EditMessage edit, WebSocketSession session) throws IOException {
         String userId = (String) session.getAttributes().get("userId");
         if (userId == null) {
-            session.sendMessage(new TextMessage("{\"error\": \"AUTH_REQUIRED\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"AUTH_REQUIRED\"}"));
             return;
         }
 
-        String messageId = json.get("messageId").asText();
-        String newText = json.has("message") ? json.get("message").asText() : null;
-        String newMediaUrl = json.has("mediaUrl") ? json.get("mediaUrl").asText() : null;
+        String messageId = edit.messageId();
+        String newText = edit.message();
+        String newMediaUrl = edit.mediaUrl();
 
         Optional<ChatMessage> msgOpt = chatMessageService.getMessageById(messageId);
         if (msgOpt.isEmpty()) {
-            session.sendMessage(new TextMessage("{\"error\": \"MESSAGE_NOT_FOUND\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"MESSAGE_NOT_FOUND\"}"));
             return;
         }
 
         ChatMessage message = msgOpt.get();
 
         if (!message.getSenderId().equals(userId)) {
-            session.sendMessage(new TextMessage("{\"error\": \"NOT_AUTHORIZED_TO_EDIT\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"NOT_AUTHORIZED_TO_EDIT\"}"));
             return;
         }
 
         if (message.isDeleted()) {
-            session.sendMessage(new TextMessage("{\"error\": \"MESSAGE_DELETED\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"MESSAGE_DELETED\"}"));
             return;
         }
 
@@ -619,7 +583,7 @@ public class CustomWebSocketHandler implements WebSocketHandler {
         chatMessageService.saveMessage(message);
 
         // Broadcast edited message
-        ChatRoom chatRoom = chatRoomService.getChatRoomById(message.getChatRoomId()).orElse(null);
+        ChatRoomCache.RoomSnapshot chatRoom = chatRoomService.getCachedChatRoom(message.getChatRoomId()).orElse(null);
         if (chatRoom == null)
             return;
 
@@ -627,40 +591,36 @@ public class CustomWebSocketHandler implements WebSocketHandler {
                 "type", "EDITED_MESSAGE",
                 "message", message));
 
-        for (String participantId : chatRoom.getParticipants()) {
-            WebSocketSession participantSession = WebSocketSessionManager.getSession(participantId);
-            if (participantSession != null && participantSession.isOpen()) {
-                participantSession.sendMessage(new TextMessage(jsonResponse));
-            }
+        for (String participantId : chatRoom.participants()) {
+            webSocketSessionManager.sendToUser(participantId, jsonResponse);
         }
     }
 
-    private void handleDeleteMessage(JsonNode json, WebSocketSession session) throws IOException {
+    private void handleDeleteMessage(InboundMessage.DeleteMessage delete, WebSocketSession session) throws IOException {
         String userId = (String) session.getAttributes().get("userId");
         if (userId == null) {
-            session.sendMessage(new TextMessage("{\"error\": \"AUTH_REQUIRED\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"AUTH_REQUIRED\"}"));
             return;
         }
 
-        String messageId = json.get("messageId").asText();
+        String messageId = delete.messageId();
 
         Optional<ChatMessage> msgOpt = chatMessageService.getMessageById(messageId);
         if (msgOpt.isEmpty()) {
-            session.sendMessage(new TextMessage("{\"error\": \"MESSAGE_NOT_FOUND\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"MESSAGE_NOT_FOUND\"}"));
             return;
         }
 
         ChatMessage message = msgOpt.get();
 
         // Only sender or admins can delete
-        ChatRoom chatRoom = chatRoomService.getChatRoomById(message.getChatRoomId()).orElse(null);
+        ChatRoomCache.RoomSnapshot chatRoom = chatRoomService.getCachedChatRoom(message.getChatRoomId()).orElse(null);
         if (chatRoom == null)
             return;
 
-        boolean isAdmin = chatRoom.isGroupChat() && chatRoom.getAdmins() != null
-                && chatRoom.getAdmins().contains(userId);
+        boolean isAdmin = chatRoom.groupChat() && chatRoom.admins().contains(userId);
         if (!message.getSenderId().equals(userId) && !isAdmin) {
-            session.sendMessage(new TextMessage("{\"error\": \"NOT_AUTHORIZED_TO_DELETE\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"NOT_AUTHORIZED_TO_DELETE\"}"));
             return;
         }
 
@@ -672,11 +632,8 @@ public class CustomWebSocketHandler implements WebSocketHandler {
                 "type", "DELETED_MESSAGE",
                 "messageId", messageId));
 
-        for (String participantId : chatRoom.getParticipants()) {
-            WebSocketSession participantSession = WebSocketSessionManager.getSession(participantId);
-            if (participantSession != null && participantSession.isOpen()) {
-                participantSession.sendMessage(new TextMessage(jsonResponse));
-            }
+        for (String participantId : chatRoom.participants()) {
+            webSocketSessionManager.sendToUser(participantId, jsonResponse);
         }
     }
 
@@ -706,24 +663,28 @@ public class CustomWebSocketHandler implements WebSocketHandler {
     // }
     // }
 
-    private void handleMarkAsRead(JsonNode json, WebSocketSession session) throws IOException {
+    private void handleMarkAsRead(InboundMessage.MarkAsRead markAsRead, WebSocketSession session) throws IOException {
         String userId = (String) session.getAttributes().get("userId");
         if (userId == null) {
-            session.sendMessage(new TextMessage("{\"success\":false,\"error\":\"AUTH_REQUIRED\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"success\":false,\"error\":\"AUTH_REQUIRED\"}"));
             return;
         }
 
-        String chatRoomId = json.get("chatRoomId").asText();
+        String chatRoomId = markAsRead.chatRoomId();
+        if (!chatRoomService.isParticipant(chatRoomId, userId)) {
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"success\":false,\"error\":\"NOT_A_PARTICIPANT\"}"));
+            return;
+        }
 
         try {
-            long updatedCount = chatMessageService.markMessagesAsReadByUserInChatRoom(chatRoomId, userId);
+            long updatedCount = chatRoomService.markRead(chatRoomId, userId);
 
             if (updatedCount > 0) {
-                session.sendMessage(new TextMessage(
+                webSocketSessionManager.sendToSession(session, new TextMessage(
                         "{\"success\":true,\"chatRoomId\":\"" + chatRoomId + "\",\"updatedCount\":" + updatedCount
                                 + "}"));
             } else {
-                session.sendMessage(new TextMessage(
+                webSocketSessionManager.sendToSession(session, new TextMessage(
                         "{\"success\":false,\"chatRoomId\":\"" + chatRoomId + "\"}"));
             }
         } catch (Exception e) {
@@ -731,7 +692,7 @@ public class CustomWebSocketHandler implements WebSocketHandler {
             e.printStackTrace();
 
             // Send DB error response
-            session.sendMessage(new TextMessage(
+            webSocketSessionManager.sendToSession(session, new TextMessage(
                     "{\"success\":false,\"error\":\"DB_ERROR\"}"));
         }
     }
@@ -804,61 +765,41 @@ public class CustomWebSocketHandler implements WebSocketHandler {
     // }
     // }
 
-    private void handleTypingIndicator(JsonNode json, WebSocketSession session) throws IOException {
+    private void handleTypingIndicator(InboundMessage.TypingIndicator typing, WebSocketSession session) throws IOException {
         String userId = (String) session.getAttributes().get("userId");
         if (userId == null) {
-            session.sendMessage(new TextMessage("{\"error\": \"AUTH_REQUIRED\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"AUTH_REQUIRED\"}"));
             return;
         }
 
-        String chatRoomId = json.get("chatRoomId").asText();
-        boolean isTyping = json.has("isTyping") && json.get("isTyping").asBoolean();
+        String chatRoomId = typing.chatRoomId();
+        boolean isTyping = typing.isTyping();
 
-        Optional<ChatRoom> chatRoomOpt = chatRoomService.getChatRoomById(chatRoomId);
+        Optional<ChatRoomCache.RoomSnapshot> chatRoomOpt = chatRoomService.getCachedChatRoom(chatRoomId);
         if (chatRoomOpt.isEmpty()) {
-            session.sendMessage(new TextMessage("{\"error\": \"INVALID_CHAT_ROOM\"}"));
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"INVALID_CHAT_ROOM\"}"));
             return;
         }
 
-        ChatRoom chatRoom = chatRoomOpt.get();
-        Set<String> participants = chatRoom.getParticipants();
-
-        if (!participants.contains(userId)) {
-            session.sendMessage(new TextMessage("{\"error\": \"NOT_A_PARTICIPANT\"}"));
+        if (!chatRoomOpt.get().hasParticipant(userId)) {
+            webSocketSessionManager.sendToSession(session, new TextMessage("{\"error\": \"NOT_A_PARTICIPANT\"}"));
             return;
         }
 
-        // Prepare typing indicator message
-        String jsonResponse = objectMapper.writeValueAsString(Map.of(
-                "type", "TYPING_INDICATOR",
-                "chatRoomId", chatRoomId,
-                "userId", userId,
-                "isTyping", isTyping));
-
-        // Broadcast typing indicator to all other participants
-        for (String participantId : participants) {
-            if (!participantId.equals(userId)) {
-                WebSocketSession participantSession = WebSocketSessionManager.getSession(participantId);
-                if (participantSession != null && participantSession.isOpen()) {
-                    participantSession.sendMessage(new TextMessage(jsonResponse));
-                }
-            }
-        }
+        // Only start/stop transitions reach the other participants.
+        typingTracker.update(chatRoomId, userId, isTyping);
     }
 
-    private void handleCommentEvent(JsonNode json, WebSocketSession session, String username) throws IOException {
+    private void handleCommentEvent(InboundMessage.Comment event, WebSocketSession session, String username) throws IOException {
         Comments comment = new Comments();
 
-        comment.setMemeId(json.get("memeId").asText());
-        comment.setText(json.get("text").asText());
+        comment.setMemeId(event.memeId());
+        comment.setText(event.text());
 
         String commentUserId = (String) session.getAttributes().get("userId");
         comment.setUserId(commentUserId);
         comment.setUsername(username);
-        String profilePictureUrl = json.has("profilePictureUrl")
-                ? json.get("profilePictureUrl").asText()
-                : null;
-        comment.setProfilePictureUrl(profilePictureUrl);
+        comment.setProfilePictureUrl(event.profilePictureUrl());
         comment.setCreatedAt(new Date());
 
         memeService.addCommentsToMeme(comment);
@@ -866,10 +807,10 @@ public class CustomWebSocketHandler implements WebSocketHandler {
         System.out.println("💬 New comment added by: " + username + " on memeId: " + comment.getMemeId());
     }
 
-    private void handleFollowEvent(JsonNode json) throws IOException {
-        String followerUsername = json.get("followerUsername").asText();
-        String followingUsername = json.get("followingUsername").asText();
-        boolean isFollowing = json.has("isFollowing") && json.get("isFollowing").asBoolean();
+    private void handleFollowEvent(InboundMessage.Follow follow) throws IOException {
+        String followerUsername = follow.followerUsername();
+        String followingUsername = follow.followingUsername();
+        boolean isFollowing = follow.isFollowing();
 
         Map<String, Boolean> requestBody = new HashMap<>();
         requestBody.put("isFollowing", isFollowing);
@@ -886,14 +827,18 @@ public class CustomWebSocketHandler implements WebSocketHandler {
         followPayload.put("message", followResponse.getBody().toString());
 
         String payload = objectMapper.writeValueAsString(followPayload);
-        WebSocketSessionManager.sendToUser(followerUsername, payload);
+        // Sessions are registered by userId, not username
+        Map<String, String> followerDetails = profileService.getUserDetailsByUsername(followerUsername);
+        if (followerDetails != null && followerDetails.get("userId") != null) {
+            webSocketSessionManager.sendToUser(followerDetails.get("userId"), payload);
+        }
 
         System.out.println("🔁 Sent FOLLOW response to " + followerUsername);
     }
 
-    private void handleLikeEvent(JsonNode json, String username) throws IOException {
-        String memeId = json.get("memeId").asText();
-        String action = json.get("action").asText();
+    private void handleLikeEvent(InboundMessage.Like like, WebSocketSession session, String username) throws IOException {
+        String memeId = like.memeId();
+        String action = like.action();
         boolean isLike = action.equalsIgnoreCase("LIKE");
 
         ResponseEntity<?> response = memeService.likedMemes(username, memeId, isLike);
@@ -912,16 +857,13 @@ public class CustomWebSocketHandler implements WebSocketHandler {
             likePayload.put("message", response.getBody().toString());
         }
 
-        String payload = objectMapper.writeValueAsString(likePayload);
-        System.out.println("Broadcast payload: " + payload);
-
-        WebSocketSessionManager.broadcastToPost(memeId, payload);
-        System.out.println("Broadcasted LIKE event to post viewers of memeId: " + memeId);
+        // Viewers get the count change through the room's COUNTERS frame, only the actor needs the full result.
+        webSocketSessionManager.sendToUser((String) session.getAttributes().get("userId"), frameEncoder.encode(likePayload));
     }
 
-    private void handleSaveEvent(JsonNode json, String username) throws IOException {
-        String memeId = json.get("memeId").asText();
-        boolean isSave = json.get("action").asText().equalsIgnoreCase("SAVE");
+    private void handleSaveEvent(InboundMessage.Save save, WebSocketSession session, String username) throws IOException {
+        String memeId = save.memeId();
+        boolean isSave = save.action().equalsIgnoreCase("SAVE");
 
         ResponseEntity<?> response = memeService.saveMeme(username, memeId, isSave);
         System.out.println("Service response - status: " + response.getStatusCode() + ", body: " + response.getBody());
@@ -941,19 +883,19 @@ public class CustomWebSocketHandler implements WebSocketHandler {
             savePayload.put("message", response.getBody().toString());
         }
 
-        String payload = objectMapper.writeValueAsString(savePayload);
-        WebSocketSessionManager.broadcastToPost(memeId, payload);
-        System.out.println("Broadcasted SAVE event to post viewers of memeId: " + memeId);
+        webSocketSessionManager.sendToUser((String) session.getAttributes().get("userId"), frameEncoder.encode(savePayload));
     }
 
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) {
-        WebSocketSessionManager.removeSessions(session);
+        webSocketSessionManager.removeSessions(session);
+        inboundDispatcher.release(session);
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        WebSocketSessionManager.removeSessions(session);
+        webSocketSessionManager.removeSessions(session);
+        inboundDispatcher.release(session);
     }
 
     @Override
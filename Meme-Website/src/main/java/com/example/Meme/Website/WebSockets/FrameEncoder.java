@@ -0,0 +1,29 @@
+package com.example.Meme.Website.WebSockets;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Encodes an outbound payload exactly once. TextMessage is immutable, so the returned frame is
+// shared by every recipient of a broadcast instead of re-serializing per session.
+@Component
+public class FrameEncoder {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public FrameEncoder() {
+    }
+
+    public FrameEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public TextMessage encode(Object payload) throws IOException {
+        return new TextMessage(objectMapper.writeValueAsBytes(payload));
+    }
+}
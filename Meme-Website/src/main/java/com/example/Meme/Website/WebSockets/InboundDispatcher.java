@@ -0,0 +1,195 @@
+package com.example.Meme.Website.WebSockets;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.example.Meme.Website.Exceptions.CustomExceptions.InvalidFrameException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Runs inbound message handling (Mongo/Redis work) off the container I/O threads. Each session
+// has a mailbox drained by at most one worker at a time, so a session's messages keep their order
+// while different sessions run in parallel on the bounded worker pool. A handler that throws gets
+// the client an error frame instead of silence.
+@Component
+@Slf4j
+public class InboundDispatcher {
+
+    private static final int MAX_BATCH_PER_TURN = 16;
+
+    @Autowired
+    private OutboundDispatcher outboundDispatcher;
+
+    @Value("${websocket.inbound.worker-threads:16}")
+    private int workerThreads;
+    @Value("${websocket.inbound.max-in-flight-per-session:32}")
+    private int maxInFlightPerSession;
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Map<InboundMessage.Type, TypeMetrics> metrics = new EnumMap<>(InboundMessage.Type.class);
+    private ExecutorService workers;
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    public InboundDispatcher() {
+        for (InboundMessage.Type type : InboundMessage.Type.values()) {
+            metrics.put(type, new TypeMetrics());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ws-inbound-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Returns false when the session already has too many messages waiting or running.
+    public boolean submit(WebSocketSession session, InboundMessage.Type type, Task task) {
+        Mailbox mailbox = mailboxes.computeIfAbsent(session.getId(), id -> new Mailbox());
+        if (mailbox.inFlight.incrementAndGet() > maxInFlightPerSession) {
+            mailbox.inFlight.decrementAndGet();
+            metrics.get(type).rejected.increment();
+            return false;
+        }
+
+        mailbox.jobs.offer(new Job(session, type, task));
+        schedule(mailbox);
+        return true;
+    }
+
+    public void release(WebSocketSession session) {
+        Mailbox mailbox = mailboxes.remove(session.getId());
+        if (mailbox != null) {
+            mailbox.jobs.clear();
+        }
+    }
+
+    public Map<String, Map<String, Object>> getMetrics() {
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        metrics.forEach((type, typeMetrics) -> {
+            if (typeMetrics.count.sum() > 0 || typeMetrics.rejected.sum() > 0) {
+                snapshot.put(type.name(), typeMetrics.snapshot());
+            }
+        });
+        return snapshot;
+    }
+
+    private void schedule(Mailbox mailbox) {
+        if (mailbox.running.compareAndSet(false, true)) {
+            workers.execute(() -> drain(mailbox));
+        }
+    }
+
+    private void drain(Mailbox mailbox) {
+        try {
+            Job job;
+            int processed = 0;
+            while (processed < MAX_BATCH_PER_TURN && (job = mailbox.jobs.poll()) != null) {
+                processed++;
+                long startedAt = System.nanoTime();
+                try {
+                    job.task.run();
+                } catch (IllegalArgumentException | InvalidFrameException e) {
+                    log.warn("⚠️ Rejected {} message: {}", job.type, e.getMessage());
+                    replyError(job, "INVALID_REQUEST");
+                } catch (Exception e) {
+                    log.error("❌ Failed to handle {} message: {}", job.type, e.getMessage(), e);
+                    replyError(job, "INTERNAL_ERROR");
+                } finally {
+                    metrics.get(job.type).record(startedAt - job.enqueuedAt, System.nanoTime() - startedAt);
+                    mailbox.inFlight.decrementAndGet();
+                }
+            }
+        } finally {
+            mailbox.running.set(false);
+        }
+
+        // Yield after a batch so one chatty session cannot starve the others.
+        if (!mailbox.jobs.isEmpty()) {
+            schedule(mailbox);
+        }
+    }
+
+    private void replyError(Job job, String error) {
+        outboundDispatcher.send(job.session, new TextMessage(
+                "{\"error\":\"" + error + "\",\"requestType\":\"" + job.type.name() + "\"}"));
+    }
+
+    private static final class Job {
+        private final WebSocketSession session;
+        private final InboundMessage.Type type;
+        private final Task task;
+        private final long enqueuedAt = System.nanoTime();
+
+        private Job(WebSocketSession session, InboundMessage.Type type, Task task) {
+            this.session = session;
+            this.type = type;
+            this.task = task;
+        }
+    }
+
+    private static final class Mailbox {
+        private final ConcurrentLinkedQueue<Job> jobs = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean running = new AtomicBoolean();
+    }
+
+    private static final class TypeMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder queueNanos = new LongAdder();
+        private final LongAdder serviceNanos = new LongAdder();
+        private final AtomicLong maxQueueNanos = new AtomicLong();
+        private final AtomicLong maxServiceNanos = new AtomicLong();
+
+        private void record(long queued, long service) {
+            count.increment();
+            queueNanos.add(queued);
+            serviceNanos.add(service);
+            maxQueueNanos.accumulateAndGet(queued, Math::max);
+            maxServiceNanos.accumulateAndGet(service, Math::max);
+        }
+
+        private Map<String, Object> snapshot() {
+            long handled = count.sum();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", handled);
+            values.put("rejected", rejected.sum());
+            values.put("avgQueueMs", handled == 0 ? 0.0 : queueNanos.sum() / (double) handled / 1_000_000);
+            values.put("maxQueueMs", TimeUnit.NANOSECONDS.toMillis(maxQueueNanos.get()));
+            values.put("avgServiceMs", handled == 0 ? 0.0 : serviceNanos.sum() / (double) handled / 1_000_000);
+            values.put("maxServiceMs", TimeUnit.NANOSECONDS.toMillis(maxServiceNanos.get()));
+            return values;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.Meme.Website.WebSockets;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Typed client -> server WebSocket protocol. One record per message type, decoded by InboundMessageDecoder.
+public sealed interface InboundMessage {
+
+    Type type();
+
+    enum Type {
+        JOIN_POST("ws:session", false),
+        LEAVE_POST("ws:session", false),
+        LIKE("ws:like", true),
+        SAVE("ws:save", true),
+        COMMENT("ws:comment", true),
+        FOLLOW("ws:follow", true),
+        CHAT("ws:default", false),
+        EDIT_MESSAGE("ws:default", false),
+        DELETE_MESSAGE("ws:default", false),
+        MARK_AS_READ("ws:default", false),
+        // TypingTracker only forwards start/stop transitions, the bucket caps how fast a client may toggle.
+        TYPING_INDICATOR("ws:typing", false);
+
+        private static final Map<String, Type> BY_WIRE_NAME = new HashMap<>();
+
+        static {
+            for (Type type : values()) {
+                BY_WIRE_NAME.put(type.name(), type);
+            }
+        }
+
+        private final String bucketType;
+        private final boolean loginRequired;
+
+        Type(String bucketType, boolean loginRequired) {
+            this.bucketType = bucketType;
+            this.loginRequired = loginRequired;
+        }
+
+        public String getBucketType() {
+            return bucketType;
+        }
+
+        public boolean isLoginRequired() {
+            return loginRequired;
+        }
+
+        public static Type fromWireName(String name) {
+            return BY_WIRE_NAME.get(name);
+        }
+    }
+
+    record JoinPost(String postId) implements InboundMessage {
+        public Type type() {
+            return Type.JOIN_POST;
+        }
+    }
+
+    record LeavePost(String postId) implements InboundMessage {
+        public Type type() {
+            return Type.LEAVE_POST;
+        }
+    }
+
+    record Like(String memeId, String action) implements InboundMessage {
+        public Type type() {
+            return Type.LIKE;
+        }
+    }
+
+    record Save(String memeId, String action) implements InboundMessage {
+        public Type type() {
+            return Type.SAVE;
+        }
+    }
+
+    record Comment(String memeId, String text, String profilePictureUrl) implements InboundMessage {
+        public Type type() {
+            return Type.COMMENT;
+        }
+    }
+
+    record Follow(String followerUsername, String followingUsername, boolean isFollowing) implements InboundMessage {
+        public Type type() {
+            return Type.FOLLOW;
+        }
+    }
+
+    record Chat(String chatRoomId, String message, String messageType, String mediaUrl,
+            String repliedToMessageId, String toUsername) implements InboundMessage {
+        public Type type() {
+            return Type.CHAT;
+        }
+    }
+
+    record EditMessage(String messageId, String message, String mediaUrl) implements InboundMessage {
+        public Type type() {
+            return Type.EDIT_MESSAGE;
+        }
+    }
+
+    record DeleteMessage(String messageId) implements InboundMessage {
+        public Type type() {
+            return Type.DELETE_MESSAGE;
+        }
+    }
+
+    record MarkAsRead(String chatRoomId) implements InboundMessage {
+        public Type type() {
+            return Type.MARK_AS_READ;
+        }
+    }
+
+    record TypingIndicator(String chatRoomId, boolean isTyping) implements InboundMessage {
+        public Type type() {
+            return Type.TYPING_INDICATOR;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.Meme.Website.WebSockets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import com.example.Meme.Website.Exceptions.CustomExceptions.InvalidFrameException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+// Single pass over the frame with a streaming parser: top-level scalar fields land in a fixed
+// slot array, nested values are skipped, and no JsonNode tree is ever built.
+@Component
+public class InboundMessageDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    enum Field {
+        TYPE("type"),
+        POST_ID("postId"),
+        MEME_ID("memeId"),
+        ACTION("action"),
+        TEXT("text"),
+        PROFILE_PICTURE_URL("profilePictureUrl"),
+        FOLLOWER_USERNAME("followerUsername"),
+        FOLLOWING_USERNAME("followingUsername"),
+        IS_FOLLOWING("isFollowing"),
+        CHAT_ROOM_ID("chatRoomId"),
+        MESSAGE("message"),
+        MESSAGE_TYPE("messageType"),
+        MEDIA_URL("mediaUrl"),
+        REPLIED_TO_MESSAGE_ID("repliedToMessageId"),
+        TO_USERNAME("toUsername"),
+        MESSAGE_ID("messageId"),
+        IS_TYPING("isTyping");
+
+        private static final Map<String, Field> BY_NAME = new HashMap<>();
+
+        static {
+            for (Field field : values()) {
+                BY_NAME.put(field.wireName, field);
+            }
+        }
+
+        private static final int COUNT = values().length;
+
+        private final String wireName;
+
+        Field(String wireName) {
+            this.wireName = wireName;
+        }
+    }
+
+    public InboundMessage decode(WebSocketMessage<?> frame) {
+        String[] values = new String[Field.COUNT];
+
+        try (JsonParser parser = createParser(frame)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidFrameException("MALFORMED_FRAME");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                Field field = Field.BY_NAME.get(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (value.isStructStart()) {
+                    parser.skipChildren();
+                } else if (field != null && value != JsonToken.VALUE_NULL) {
+                    values[field.ordinal()] = parser.getText();
+                }
+            }
+
+            if (token != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                throw new InvalidFrameException("MALFORMED_FRAME");
+            }
+        } catch (IOException e) {
+            throw new InvalidFrameException("MALFORMED_FRAME");
+        }
+
+        String typeName = require(values, Field.TYPE);
+        InboundMessage.Type type = InboundMessage.Type.fromWireName(typeName);
+        if (type == null) {
+            throw new InvalidFrameException("Unknown type: " + typeName);
+        }
+
+        return switch (type) {
+            case JOIN_POST -> new InboundMessage.JoinPost(require(values, Field.POST_ID));
+            case LEAVE_POST -> new InboundMessage.LeavePost(require(values, Field.POST_ID));
+            case LIKE -> new InboundMessage.Like(require(values, Field.MEME_ID), require(values, Field.ACTION));
+            case SAVE -> new InboundMessage.Save(require(values, Field.MEME_ID), require(values, Field.ACTION));
+            case COMMENT -> new InboundMessage.Comment(
+                    require(values, Field.MEME_ID),
+                    require(values, Field.TEXT),
+                    values[Field.PROFILE_PICTURE_URL.ordinal()]);
+            case FOLLOW -> new InboundMessage.Follow(
+                    require(values, Field.FOLLOWER_USERNAME),
+                    require(values, Field.FOLLOWING_USERNAME),
+                    flag(values, Field.IS_FOLLOWING));
+            case CHAT -> new InboundMessage.Chat(
+                    values[Field.CHAT_ROOM_ID.ordinal()],
+                    values[Field.MESSAGE.ordinal()],
+                    values[Field.MESSAGE_TYPE.ordinal()] != null ? values[Field.MESSAGE_TYPE.ordinal()] : "TEXT",
+                    values[Field.MEDIA_URL.ordinal()],
+                    values[Field.REPLIED_TO_MESSAGE_ID.ordinal()],
+                    values[Field.TO_USERNAME.ordinal()]);
+            case EDIT_MESSAGE -> new InboundMessage.EditMessage(
+                    require(values, Field.MESSAGE_ID),
+                    values[Field.MESSAGE.ordinal()],
+                    values[Field.MEDIA_URL.ordinal()]);
+            case DELETE_MESSAGE -> new InboundMessage.DeleteMessage(require(values, Field.MESSAGE_ID));
+            case MARK_AS_READ -> new InboundMessage.MarkAsRead(require(values, Field.CHAT_ROOM_ID));
+            case TYPING_INDICATOR -> new InboundMessage.TypingIndicator(
+                    require(values, Field.CHAT_ROOM_ID),
+                    flag(values, Field.IS_TYPING));
+        };
+    }
+
+    // Text frames already arrive as a String from the container, so parse that instead of
+    // copying it into a byte[] first; binary frames are parsed from their backing array.
+    private JsonParser createParser(WebSocketMessage<?> frame) throws IOException {
+        if (frame instanceof TextMessage textMessage) {
+            return JSON_FACTORY.createParser(textMessage.getPayload());
+        }
+        if (frame instanceof BinaryMessage binaryMessage) {
+            ByteBuffer buffer = binaryMessage.getPayload();
+            if (buffer.hasArray()) {
+                return JSON_FACTORY.createParser(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                        buffer.remaining());
+            }
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return JSON_FACTORY.createParser(bytes);
+        }
+        throw new InvalidFrameException("UNSUPPORTED_FRAME");
+    }
+
+    private static String require(String[] values, Field field) {
+        String value = values[field.ordinal()];
+        if (value == null) {
+            throw new InvalidFrameException("MISSING_FIELD: " + field.wireName);
+        }
+        return value;
+    }
+
+    private static boolean flag(String[] values, Field field) {
+        return "true".equals(values[field.ordinal()]);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.Meme.Website.WebSockets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Owns the per-session outbound queues and the shared writer pool. A write to a socket that stops
+// reading is bounded twice: Tomcat's blocking send timeout fails it, and a watchdog closes sessions
+// whose current write has been blocked past the limit, so a few slow clients cannot hold every
+// writer thread.
+@Component
+@Slf4j
+public class OutboundDispatcher {
+
+    private static final String TOMCAT_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    @Value("${websocket.outbound.queue-capacity:256}")
+    private int queueCapacity;
+    @Value("${websocket.outbound.overflow-policy:DROP_OLDEST}")
+    private OutboundSession.OverflowPolicy overflowPolicy;
+    @Value("${websocket.outbound.writer-threads:4}")
+    private int writerThreads;
+    @Value("${websocket.outbound.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private final Map<String, OutboundSession> outbound = new ConcurrentHashMap<>();
+    private ExecutorService writer;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        writer = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ws-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+    }
+
+    public void send(WebSocketSession session, WebSocketMessage<?> message) {
+        send(session, message, null);
+    }
+
+    // Frames sharing a coalesce key replace each other while still queued (COALESCE policy only).
+    public void send(WebSocketSession session, WebSocketMessage<?> message, String coalesceKey) {
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+        outbound.computeIfAbsent(session.getId(), id -> {
+            limitBlockingSend(session);
+            return new OutboundSession(session, writer, queueCapacity, overflowPolicy);
+        }).enqueue(message, coalesceKey);
+    }
+
+    public void release(WebSocketSession session) {
+        OutboundSession removed = outbound.remove(session.getId());
+        if (removed != null) {
+            removed.close();
+        }
+    }
+
+    public List<OutboundSession> getSessionStats() {
+        return new ArrayList<>(outbound.values());
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.outbound.watchdog-interval-ms:1000}")
+    public void closeStuckSessions() {
+        for (OutboundSession session : outbound.values()) {
+            long blockedMs = session.getSendingForMillis();
+            if (blockedMs > sendTimeoutMs) {
+                log.warn("⚠️ Write to session {} blocked for {} ms, closing it", session.getSessionId(), blockedMs);
+                outbound.remove(session.getSessionId(), session);
+                session.abort(CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        }
+    }
+
+    private void limitBlockingSend(WebSocketSession session) {
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            jakarta.websocket.Session standard = nativeSession.getNativeSession(jakarta.websocket.Session.class);
+            if (standard != null) {
+                standard.getUserProperties().put(TOMCAT_SEND_TIMEOUT, sendTimeoutMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.Meme.Website.WebSockets;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Bounded send queue for one WebSocketSession. Producers never touch the socket; a single
+// drain task at a time writes queued frames, so sends to the session are serialized.
+// The queue and the coalesce index are only changed under `lock`, and the drain takes an entry's
+// message under it too, so a coalescing producer either replaces a frame that has not been taken
+// yet or queues a new one behind it, never updates one that is already being sent.
+@Slf4j
+public class OutboundSession {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        COALESCE,
+        DISCONNECT
+    }
+
+    private static final class Entry {
+        private final String coalesceKey;
+        private final long enqueuedAtNanos;
+        private WebSocketMessage<?> message;
+
+        private Entry(WebSocketMessage<?> message, String coalesceKey) {
+            this.message = message;
+            this.coalesceKey = coalesceKey;
+            this.enqueuedAtNanos = System.nanoTime();
+        }
+    }
+
+    private final WebSocketSession session;
+    private final Executor writer;
+    private final int capacity;
+    private final OverflowPolicy policy;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    private final Map<String, Entry> pendingByKey = new HashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private volatile long lastLagMillis;
+    private volatile long maxLagMillis;
+    private volatile boolean closed;
+    // System.nanoTime() when the current socket write started, 0 while idle
+    private volatile long sendStartedNanos;
+
+    public OutboundSession(WebSocketSession session, Executor writer, int capacity, OverflowPolicy policy) {
+        this.session = session;
+        this.writer = writer;
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    public void enqueue(WebSocketMessage<?> message, String coalesceKey) {
+        if (closed || !session.isOpen()) {
+            return;
+        }
+
+        boolean coalesce = coalesceKey != null && policy == OverflowPolicy.COALESCE;
+        synchronized (lock) {
+            if (coalesce) {
+                Entry pending = pendingByKey.get(coalesceKey);
+                if (pending != null) {
+                    pending.message = message;
+                    coalescedCount.incrementAndGet();
+                    return;
+                }
+            }
+
+            // Reserve the slot first; a full queue gives it back unless room can be made
+            if (size.getAndIncrement() >= capacity && !makeRoom()) {
+                size.decrementAndGet();
+                return;
+            }
+
+            Entry entry = new Entry(message, coalesceKey);
+            if (coalesce) {
+                pendingByKey.put(coalesceKey, entry);
+            }
+            queue.offer(entry);
+        }
+        scheduleDrain();
+    }
+
+    public void close() {
+        closed = true;
+        synchronized (lock) {
+            queue.clear();
+            pendingByKey.clear();
+            size.set(0);
+        }
+    }
+
+    // Closes the socket from whichever thread notices a stuck write; a blocked send then fails.
+    public void abort(CloseStatus status) {
+        close();
+        try {
+            session.close(status);
+        } catch (Exception e) {
+            log.debug("Failed to close session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    // How long the write in progress has been blocked, 0 when no write is in progress.
+    public long getSendingForMillis() {
+        long started = sendStartedNanos;
+        return started == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+
+    public String getSessionId() {
+        return session.getId();
+    }
+
+    public int getQueueDepth() {
+        return size.get();
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    // Called under lock with this producer's slot already reserved.
+    private boolean makeRoom() {
+        if (policy == OverflowPolicy.DISCONNECT) {
+            if (!closed) {
+                log.warn("⚠️ Outbound queue full for session {}, disconnecting slow client", session.getId());
+                closed = true;
+                // Closing may block on the same slow socket, keep it off the producer thread
+                writer.execute(() -> abort(CloseStatus.SESSION_NOT_RELIABLE));
+            }
+            return false;
+        }
+
+        Entry oldest = queue.poll();
+        if (oldest != null) {
+            forget(oldest);
+            size.decrementAndGet();
+            droppedCount.incrementAndGet();
+        }
+        return true;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            writer.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Entry entry;
+                WebSocketMessage<?> message;
+                synchronized (lock) {
+                    entry = queue.poll();
+                    if (entry == null) {
+                        break;
+                    }
+                    size.decrementAndGet();
+                    forget(entry);
+                    message = entry.message;
+                }
+                if (closed) {
+                    continue;
+                }
+
+                long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.enqueuedAtNanos);
+                lastLagMillis = lag;
+                if (lag > maxLagMillis) {
+                    maxLagMillis = lag;
+                }
+
+                try {
+                    if (session.isOpen()) {
+                        sendStartedNanos = System.nanoTime();
+                        session.sendMessage(message);
+                        sentCount.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    log.warn("⚠️ Failed to send to session {}: {}", session.getId(), e.getMessage());
+                    close();
+                } finally {
+                    sendStartedNanos = 0;
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+
+        // A producer may have enqueued between the last poll and releasing the flag.
+        if (size.get() > 0 && !closed) {
+            scheduleDrain();
+        }
+    }
+
+    // Called under lock.
+    private void forget(Entry entry) {
+        if (entry.coalesceKey != null) {
+            pendingByKey.remove(entry.coalesceKey, entry);
+        }
+    }
+}
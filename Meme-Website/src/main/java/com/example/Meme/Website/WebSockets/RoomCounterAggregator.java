@@ -0,0 +1,140 @@
+package com.example.Meme.Website.WebSockets;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.services.LiveCounterService;
+import com.example.Meme.Website.services.LiveCounterService.LiveCounts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Collects like/save/comment count changes per meme room and turns them into at most one
+// COUNTERS delta frame per room per interval, instead of one broadcast per interaction.
+// Bigger rooms get a longer interval, trading a little latency for far fewer frames.
+// Frames also carry the live totals, so a client that missed frames can resync from the next one.
+@Component
+@Slf4j
+public class RoomCounterAggregator {
+
+    public enum Counter {
+        LIKES("likes"),
+        SAVES("saves"),
+        COMMENTS("comments");
+
+        private final String field;
+
+        Counter(String field) {
+            this.field = field;
+        }
+    }
+
+    @Autowired
+    private WebSocketSessionManager webSocketSessionManager;
+    @Autowired
+    private FrameEncoder frameEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private LiveCounterService liveCounterService;
+
+    @Value("${websocket.counters.min-interval-ms:200}")
+    private long minIntervalMs;
+    @Value("${websocket.counters.max-interval-ms:2000}")
+    private long maxIntervalMs;
+
+    private final Map<String, RoomCounters> pending = new ConcurrentHashMap<>();
+
+    public void record(String memeId, Counter counter, int delta) {
+        pending.compute(memeId, (k, counters) -> {
+            if (counters == null) {
+                counters = new RoomCounters();
+            }
+            counters.deltas[counter.ordinal()].addAndGet(delta);
+            return counters;
+        });
+    }
+
+    public void flush() {
+        long now = System.currentTimeMillis();
+
+        for (Map.Entry<String, RoomCounters> entry : pending.entrySet()) {
+            String memeId = entry.getKey();
+            RoomCounters counters = entry.getValue();
+            if (now < counters.nextEmitAt) {
+                continue;
+            }
+
+            ObjectNode frame = null;
+            for (Counter counter : Counter.values()) {
+                int delta = counters.deltas[counter.ordinal()].getAndSet(0);
+                if (delta != 0) {
+                    if (frame == null) {
+                        frame = objectMapper.createObjectNode();
+                        frame.put("type", "COUNTERS");
+                        frame.put("memeId", memeId);
+                    }
+                    frame.put(counter.field, delta);
+                }
+            }
+
+            if (frame == null) {
+                // Nothing changed since the last emit, drop the room until the next interaction.
+                pending.computeIfPresent(memeId, (k, c) -> c.isEmpty() ? null : c);
+                continue;
+            }
+
+            try {
+                LiveCounts live = liveCounterService.get(memeId);
+                if (live != null) {
+                    frame.put("likeCount", live.likes());
+                    frame.put("saveCount", live.saves());
+                    frame.put("commentCount", live.comments());
+                }
+            } catch (Exception e) {
+                log.error("❌ Failed to read live counters for meme {}: {}", memeId, e.getMessage());
+            }
+
+            int viewers = webSocketSessionManager.getPostSessions(memeId).size();
+            counters.nextEmitAt = now + intervalFor(viewers);
+
+            try {
+                webSocketSessionManager.broadcastToPost(memeId, frameEncoder.encode(frame));
+            } catch (Exception e) {
+                log.error("❌ Failed to emit counters for meme {}: {}", memeId, e.getMessage());
+            }
+        }
+    }
+
+    // min interval up to ~10 viewers, then growing with sqrt(viewers) until the max interval.
+    long intervalFor(int viewers) {
+        double scaled = minIntervalMs * Math.sqrt(Math.max(1.0, viewers / 10.0));
+        return Math.min(maxIntervalMs, (long) scaled);
+    }
+
+    private static final class RoomCounters {
+        private final AtomicInteger[] deltas = new AtomicInteger[Counter.values().length];
+        private volatile long nextEmitAt;
+
+        private RoomCounters() {
+            for (int i = 0; i < deltas.length; i++) {
+                deltas[i] = new AtomicInteger();
+            }
+        }
+
+        private boolean isEmpty() {
+            for (AtomicInteger delta : deltas) {
+                if (delta.get() != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.Meme.Website.WebSockets;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+import com.example.Meme.Website.services.ChatRoomCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Ephemeral "who is typing" state, memory only. Repeated typing events from the same user in the
+// same room just push the expiry forward; other participants only ever see the start and stop
+// transitions. A user who stops sending events is stopped by expireStale() after the TTL.
+@Component
+@Slf4j
+public class TypingTracker {
+
+    @Autowired
+    private WebSocketSessionManager webSocketSessionManager;
+    @Autowired
+    private ChatRoomCache chatRoomCache;
+    @Autowired
+    private FrameEncoder frameEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${websocket.typing.ttl-ms:5000}")
+    private long ttlMs;
+
+    private final Map<TypingKey, Long> typing = new ConcurrentHashMap<>();
+
+    private record TypingKey(String chatRoomId, String userId) {
+    }
+
+    public void update(String chatRoomId, String userId, boolean isTyping) {
+        TypingKey key = new TypingKey(chatRoomId, userId);
+
+        if (isTyping) {
+            Long previous = typing.put(key, System.currentTimeMillis() + ttlMs);
+            if (previous == null) {
+                emit(key, true);
+            }
+        } else if (typing.remove(key) != null) {
+            emit(key, false);
+        }
+    }
+
+    public void expireStale() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<TypingKey, Long>> iterator = typing.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<TypingKey, Long> entry = iterator.next();
+            if (entry.getValue() <= now && typing.remove(entry.getKey(), entry.getValue())) {
+                emit(entry.getKey(), false);
+            }
+        }
+    }
+
+    private void emit(TypingKey key, boolean isTyping) {
+        Set<String> participants = chatRoomCache.getRoom(key.chatRoomId())
+                .map(ChatRoomCache.RoomSnapshot::participants)
+                .orElse(Set.of());
+        if (participants.isEmpty()) {
+            return;
+        }
+
+        try {
+            ObjectNode payload = objectMapper.createObjectNode();
+            payload.put("type", "TYPING_INDICATOR");
+            payload.put("chatRoomId", key.chatRoomId());
+            payload.put("userId", key.userId());
+            payload.put("isTyping", isTyping);
+            TextMessage frame = frameEncoder.encode(payload);
+
+            String coalesceKey = "typing:" + key.chatRoomId() + ":" + key.userId();
+            for (String participantId : participants) {
+                if (!participantId.equals(key.userId())) {
+                    webSocketSessionManager.sendToUser(participantId, frame, coalesceKey);
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to emit typing state for room {}: {}", key.chatRoomId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.Meme.Website.WebSockets;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Cluster-wide presence (user/room -> nodes) and cross-node delivery over Redis pub/sub.
+// Each node only subscribes to its own channel, so a message reaches exactly the nodes that
+// currently hold a matching session. Delivery to sessions on this node never goes through Redis.
+// Presence sets are cached per node and dropped when any node announces a change on the presence
+// channel, so sending to a user or room that lives only on this node needs no Redis round trip.
+// This node refreshes the TTL of every presence entry it owns on a heartbeat.
+@Component
+@Slf4j
+public class WebSocketClusterRouter implements MessageListener {
+
+    public static final String SCOPE_USER = "USER";
+    public static final String SCOPE_ROOM = "ROOM";
+    // Several users, comma separated in the envelope target, sharing one payload
+    public static final String SCOPE_USERS = "USERS";
+
+    private static final String NODE_CHANNEL_PREFIX = "ws:node:";
+    private static final String USER_PRESENCE_PREFIX = "ws:presence:user:";
+    private static final String ROOM_PRESENCE_PREFIX = "ws:presence:room:";
+    private static final String PRESENCE_CHANGED_CHANNEL = "ws:presence:changed";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${websocket.cluster.enabled:true}")
+    private boolean enabled;
+    @Value("${websocket.cluster.presence-ttl-minutes:10}")
+    private long presenceTtlMinutes;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    // presence key -> nodes holding it (this one included); a safety TTL covers lost change notices
+    private final Cache<String, Set<String>> presenceCache = Caffeine.newBuilder()
+            .maximumSize(200_000)
+            .expireAfterWrite(30, TimeUnit.SECONDS)
+            .build();
+    // Presence keys this node is registered under, re-asserted by the heartbeat
+    private final Set<String> ownedPresence = ConcurrentHashMap.newKeySet();
+    private RedisMessageListenerContainer listenerContainer;
+    private volatile RemoteDelivery remoteDelivery;
+
+    @FunctionalInterface
+    public interface RemoteDelivery {
+        void deliver(String scope, String target, String payload, String coalesceKey);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClusterEnvelope {
+        private String origin;
+        private String scope;
+        private String target;
+        private String payload;
+        // Receiving node queues the frame under the same key (USER scope only)
+        private String coalesceKey;
+
+        public ClusterEnvelope(String origin, String scope, String target, String payload) {
+            this(origin, scope, target, payload, null);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("WebSocket cluster routing disabled, running single node");
+            return;
+        }
+
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener(this, new ChannelTopic(NODE_CHANNEL_PREFIX + nodeId));
+        listenerContainer.addMessageListener((message, pattern) -> presenceCache.invalidate(new String(message.getBody())),
+                new ChannelTopic(PRESENCE_CHANGED_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        log.info("🛰️ WebSocket node {} subscribed to cluster channel", nodeId);
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void onRemoteDelivery(RemoteDelivery remoteDelivery) {
+        this.remoteDelivery = remoteDelivery;
+    }
+
+    public void markUserPresent(String userId) {
+        addPresence(USER_PRESENCE_PREFIX + userId);
+    }
+
+    public void markUserAbsent(String userId) {
+        removePresence(USER_PRESENCE_PREFIX + userId);
+    }
+
+    public void markRoomPresent(String roomId) {
+        addPresence(ROOM_PRESENCE_PREFIX + roomId);
+    }
+
+    public void markRoomAbsent(String roomId) {
+        removePresence(ROOM_PRESENCE_PREFIX + roomId);
+    }
+
+    public void publishToUser(String userId, String payload) {
+        publishToUser(userId, payload, null);
+    }
+
+    public void publishToUser(String userId, String payload, String coalesceKey) {
+        publish(USER_PRESENCE_PREFIX + userId, new ClusterEnvelope(nodeId, SCOPE_USER, userId, payload, coalesceKey));
+    }
+
+    public void publishToRoom(String roomId, String payload) {
+        publish(ROOM_PRESENCE_PREFIX + roomId, new ClusterEnvelope(nodeId, SCOPE_ROOM, roomId, payload));
+    }
+
+    // Bulk variant of publishToUser: presence for all users is read in one pipelined round trip and
+    // every other node gets a single message carrying all of its users. Returns the users that are
+    // connected to some node (this one included).
+    public Set<String> publishToUsers(List<String> userIds, String payload) {
+        if (!enabled || userIds.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> present = new HashSet<>();
+        try {
+            Map<String, Set<String>> nodesByUser = new HashMap<>();
+            List<String> uncached = new ArrayList<>();
+            for (String userId : userIds) {
+                Set<String> cached = presenceCache.getIfPresent(USER_PRESENCE_PREFIX + userId);
+                if (cached != null) {
+                    nodesByUser.put(userId, cached);
+                } else {
+                    uncached.add(userId);
+                }
+            }
+
+            if (!uncached.isEmpty()) {
+                List<Object> memberships = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                        for (String userId : uncached) {
+                            ops.opsForSet().members(USER_PRESENCE_PREFIX + userId);
+                        }
+                        return null;
+                    }
+                });
+                for (int i = 0; i < uncached.size(); i++) {
+                    Set<String> nodes = new HashSet<>();
+                    if (memberships.get(i) instanceof Set<?> nodeSet) {
+                        nodeSet.forEach(node -> nodes.add(node.toString()));
+                    }
+                    presenceCache.put(USER_PRESENCE_PREFIX + uncached.get(i), Set.copyOf(nodes));
+                    nodesByUser.put(uncached.get(i), nodes);
+                }
+            }
+
+            Map<String, List<String>> usersByNode = new HashMap<>();
+            for (String userId : userIds) {
+                Set<String> nodes = nodesByUser.getOrDefault(userId, Set.of());
+                if (nodes.isEmpty()) {
+                    continue;
+                }
+                present.add(userId);
+                for (String node : nodes) {
+                    if (!nodeId.equals(node)) {
+                        usersByNode.computeIfAbsent(node, k -> new ArrayList<>()).add(userId);
+                    }
+                }
+            }
+
+            for (Map.Entry<String, List<String>> entry : usersByNode.entrySet()) {
+                String body = objectMapper.writeValueAsString(new ClusterEnvelope(nodeId, SCOPE_USERS,
+                        String.join(",", entry.getValue()), payload));
+                Long receivers = redisTemplate.convertAndSend(NODE_CHANNEL_PREFIX + entry.getKey(), body);
+                if (receivers == null || receivers == 0) {
+                    for (String userId : entry.getValue()) {
+                        removeDeadNode(USER_PRESENCE_PREFIX + userId, entry.getKey());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to publish message for {} users: {}", userIds.size(), e.getMessage());
+        }
+        return present;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        RemoteDelivery delivery = remoteDelivery;
+        if (delivery == null) {
+            return;
+        }
+
+        try {
+            ClusterEnvelope envelope = objectMapper.readValue(message.getBody(), ClusterEnvelope.class);
+            if (nodeId.equals(envelope.getOrigin())) {
+                return;
+            }
+            delivery.deliver(envelope.getScope(), envelope.getTarget(), envelope.getPayload(),
+                    envelope.getCoalesceKey());
+        } catch (Exception e) {
+            log.error("❌ Failed to handle cluster message: {}", e.getMessage());
+        }
+    }
+
+    private void publish(String presenceKey, ClusterEnvelope envelope) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Set<String> nodes = presenceCache.get(presenceKey, key -> {
+                Set<String> members = redisTemplate.opsForSet().members(key);
+                return members != null ? Set.copyOf(members) : Set.of();
+            });
+            if (nodes == null || nodes.isEmpty() || (nodes.size() == 1 && nodes.contains(nodeId))) {
+                return;
+            }
+
+            String body = objectMapper.writeValueAsString(envelope);
+            for (String node : nodes) {
+                if (node.equals(nodeId)) {
+                    continue;
+                }
+
+                Long receivers = redisTemplate.convertAndSend(NODE_CHANNEL_PREFIX + node, body);
+                if (receivers == null || receivers == 0) {
+                    // Nobody listens on that node channel anymore, the node is gone.
+                    removeDeadNode(presenceKey, node);
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to publish {} message for '{}': {}", envelope.getScope(), envelope.getTarget(),
+                    e.getMessage());
+        }
+    }
+
+    private void addPresence(String key) {
+        if (!enabled) {
+            return;
+        }
+
+        ownedPresence.add(key);
+        try {
+            Long added = redisTemplate.opsForSet().add(key, nodeId);
+            redisTemplate.expire(key, presenceTtlMinutes, TimeUnit.MINUTES);
+            if (added != null && added > 0) {
+                presenceChanged(key);
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to register presence '{}': {}", key, e.getMessage());
+        }
+    }
+
+    private void removePresence(String key) {
+        if (!enabled) {
+            return;
+        }
+
+        ownedPresence.remove(key);
+        try {
+            Long removed = redisTemplate.opsForSet().remove(key, nodeId);
+            if (removed != null && removed > 0) {
+                presenceChanged(key);
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to remove presence '{}': {}", key, e.getMessage());
+        }
+    }
+
+    // Keeps long-lived connections routable: re-adds this node to every presence set it owns (in case a
+    // peer pruned it during a pub/sub hiccup) and pushes the TTL out, in one pipeline.
+    @Scheduled(fixedDelayString = "${websocket.cluster.presence-heartbeat-ms:60000}")
+    public void heartbeat() {
+        if (!enabled || ownedPresence.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>(ownedPresence);
+        try {
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (String key : keys) {
+                        ops.opsForSet().add(key, nodeId);
+                        ops.expire(key, presenceTtlMinutes, TimeUnit.MINUTES);
+                    }
+                    return null;
+                }
+            });
+
+            for (int i = 0; i < keys.size(); i++) {
+                if (results.get(i * 2) instanceof Long added && added > 0) {
+                    presenceChanged(keys.get(i));
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to refresh {} presence entries: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    private void removeDeadNode(String key, String deadNode) {
+        Long removed = redisTemplate.opsForSet().remove(key, deadNode);
+        if (removed != null && removed > 0) {
+            presenceChanged(key);
+        } else {
+            presenceCache.invalidate(key);
+        }
+    }
+
+    private void presenceChanged(String key) {
+        presenceCache.invalidate(key);
+        redisTemplate.convertAndSend(PRESENCE_CHANGED_CHANNEL, key);
+    }
+}
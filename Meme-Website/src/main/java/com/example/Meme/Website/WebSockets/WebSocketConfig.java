@@ -38,6 +38,16 @@ public class WebSocketConfig implements WebSocketConfigurer{
     private ChatRoomService chatRoomService;
     @Autowired
     private ChatMessageService chatMessageService;
+    @Autowired
+    private FrameEncoder frameEncoder;
+    @Autowired
+    private InboundMessageDecoder inboundMessageDecoder;
+    @Autowired
+    private InboundDispatcher inboundDispatcher;
+    @Autowired
+    private TypingTracker typingTracker;
+    @Autowired
+    private ChatFanoutService chatFanoutService;
 
     @Value("${frontend.websocket.url}")
     private String frontendUrl;
@@ -50,6 +60,6 @@ public class WebSocketConfig implements WebSocketConfigurer{
     }
 
     public WebSocketHandler webSocketHandler(){
-        return new CustomWebSocketHandler(memeService, profileService, webSocketSessionManager, rateLimiterService, rateLimitConfig, chatMessageService, chatRoomService);
+        return new CustomWebSocketHandler(memeService, profileService, webSocketSessionManager, rateLimiterService, rateLimitConfig, chatMessageService, chatRoomService, frameEncoder, inboundMessageDecoder, inboundDispatcher, typingTracker, chatFanoutService);
     }
 }
@@ -1,6 +1,5 @@
 package com.example.Meme.Website.WebSockets;
 
-import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -11,12 +10,17 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 
+import com.example.Meme.Website.batch.InteractionBatchBuffer;
 import com.example.Meme.Website.models.Meme;
 import com.example.Meme.Website.models.userModel;
-import com.example.Meme.Website.repository.memeRepository;
 import com.example.Meme.Website.repository.userRepository;
+import com.example.Meme.Website.services.MemeCache;
+
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class WebSocketSessionManager {
@@ -24,48 +28,129 @@ public class WebSocketSessionManager {
     @Autowired
     private userRepository userRepository;
     @Autowired
-    private memeRepository memeRepository;
+    private MemeCache memeCache;
+    @Autowired
+    private InteractionBatchBuffer interactionBuffer;
+    @Autowired
+    private WebSocketClusterRouter clusterRouter;
+    @Autowired
+    private OutboundDispatcher outboundDispatcher;
+
+    // Forward indexes (user/post -> sessions) for delivery, reverse indexes (session -> user/posts)
+    // so a disconnect only touches the entries that session actually owns.
+    private final Map<String, Set<WebSocketSession>> userSessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<WebSocketSession>> postSession = new ConcurrentHashMap<>();
+    private final Map<String, String> sessionUser = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionPosts = new ConcurrentHashMap<>();
+    // Presence writes for one user/room are serialized on a stripe and publish whatever the local
+    // index holds at that moment, so a late "absent" can never overwrite a newer connect.
+    private final Object[] presenceLocks = new Object[64];
+
+    {
+        for (int i = 0; i < presenceLocks.length; i++) {
+            presenceLocks[i] = new Object();
+        }
+    }
 
-    private static final Map<String, WebSocketSession> userSession = new ConcurrentHashMap<>();
-    private static final Map<String, Set<WebSocketSession>> postSession = new ConcurrentHashMap<>();
+    @PostConstruct
+    public void init() {
+        clusterRouter.onRemoteDelivery(this::deliverRemote);
+    }
 
     public Set<String> getAllActiveUsersId() {
-        return userSession.keySet();
+        return userSessions.keySet();
     }
 
-    public static void registerUserSession(String userId, WebSocketSession session) {
-        userSession.put(userId, session);
+    // A user may be connected from several tabs/devices at once, each session is kept.
+    public void registerUserSession(String userId, WebSocketSession session) {
+        sessionUser.put(session.getId(), userId);
+        userSessions.compute(userId, (k, sessions) -> {
+            if (sessions == null) {
+                sessions = ConcurrentHashMap.newKeySet();
+            }
+            sessions.add(session);
+            return sessions;
+        });
+        syncUserPresence(userId);
     }
 
-    public static WebSocketSession getSession(String userId) {
-        return userSession.get(userId);
+    public Set<WebSocketSession> getUserSessions(String userId) {
+        return userSessions.getOrDefault(userId, Collections.emptySet());
     }
 
-    public static void removeUserSession(WebSocketSession session) {
-        userSession.entrySet().removeIf(entry -> entry.getValue().getId().equals(session.getId()));
+    public void removeUserSession(WebSocketSession session) {
+        removeLocalUserSession(session);
     }
 
     public boolean hasUserSession(String userId) {
-        return userSession.containsKey(userId);
+        return userSessions.containsKey(userId);
     }
 
-    public static void sendToUser(String username, String message) throws IOException {
-        WebSocketSession session = userSession.get(username);
-        if (session != null && session.isOpen()) {
-            try {
-                session.sendMessage(new org.springframework.web.socket.TextMessage(message));
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+    public void sendToUser(String userId, String message) {
+        sendToUser(userId, new TextMessage(message), null);
+    }
+
+    public void sendToUser(String userId, String message, String coalesceKey) {
+        sendToUser(userId, new TextMessage(message), coalesceKey);
+    }
+
+    public void sendToUser(String userId, TextMessage frame) {
+        sendToUser(userId, frame, null);
+    }
+
+    // Only the latest queued frame per coalesce key is kept for a slow session (COALESCE policy).
+    public void sendToUser(String userId, TextMessage frame, String coalesceKey) {
+        deliverToLocalUser(userId, frame, coalesceKey);
+        clusterRouter.publishToUser(userId, frame.getPayload(), coalesceKey);
+    }
+
+    // This node only, no cluster publish. Returns how many local sessions the frame was queued for.
+    public int sendToLocalUser(String userId, TextMessage frame) {
+        Set<WebSocketSession> sessions = userSessions.get(userId);
+        if (sessions == null) {
+            return 0;
         }
+        for (WebSocketSession session : sessions) {
+            outboundDispatcher.send(session, frame);
+        }
+        return sessions.size();
+    }
+
+    // All writes to a session go through its outbound queue so they never race each other.
+    public void sendToSession(WebSocketSession session, WebSocketMessage<?> message) {
+        outboundDispatcher.send(session, message);
     }
 
-    public static Set<WebSocketSession> getPostSessions(String postId) {
+    public Set<WebSocketSession> getPostSessions(String postId) {
         return postSession.getOrDefault(postId, Collections.emptySet());
     }
 
     public void registerPostSession(String postId, WebSocketSession session) {
-        postSession.computeIfAbsent(postId, k -> ConcurrentHashMap.newKeySet()).add(session);
+        // Joins run on an inbound worker, the connection may already be gone
+        if (!session.isOpen()) {
+            return;
+        }
+        // Add inside compute so a concurrent last-viewer leave cannot drop the set under us.
+        boolean[] firstViewer = new boolean[1];
+        postSession.compute(postId, (k, sessions) -> {
+            if (sessions == null) {
+                firstViewer[0] = true;
+                sessions = ConcurrentHashMap.newKeySet();
+            }
+            sessions.add(session);
+            return sessions;
+        });
+        // Redis I/O stays outside the map's bin lock
+        if (firstViewer[0]) {
+            syncRoomPresence(postId);
+        }
+        sessionPosts.computeIfAbsent(session.getId(), k -> ConcurrentHashMap.newKeySet()).add(postId);
+        // Closed while registering: removeSessions may have run before the entries above existed
+        if (!session.isOpen()) {
+            removePostSession(postId, session);
+            sessionPosts.computeIfPresent(session.getId(), (k, posts) -> posts.isEmpty() ? null : posts);
+            return;
+        }
 
         Object userIdObject = session.getAttributes().get("userId");
         if (userIdObject == null) {
@@ -85,7 +170,7 @@ public class WebSocketSessionManager {
 
         boolean tagsUpdated = false;
 
-        Optional<Meme> memeOpt = memeRepository.findById(postId);
+        Optional<Meme> memeOpt = memeCache.get(postId);
         if (memeOpt.isEmpty()) {
             System.out.println("Meme not found for postId: " + postId);
             return;
@@ -93,10 +178,8 @@ public class WebSocketSessionManager {
 
         Meme meme = memeOpt.get();
 
-        // Increment view count only on first view
-        meme.setViewCount(meme.getViewCount() + 1);
-        memeRepository.save(meme);
-        System.out.println("Incremented viewCount for postId: " + postId);
+        // Flushed with $inc like likes/saves, caches are patched by the counters event instead of evicted
+        interactionBuffer.bufferView(postId);
 
         List<String> tags = meme.getTags();
         if (tags != null && !tags.isEmpty()) {
@@ -123,44 +206,121 @@ public class WebSocketSessionManager {
     }
 
     public void removePostSession(String postId, WebSocketSession session) {
+        Set<String> posts = sessionPosts.get(session.getId());
+        if (posts != null) {
+            posts.remove(postId);
+        }
+        leavePost(postId, session);
+    }
+
+    public void broadcastToPost(String postId, String message) {
+        broadcastToPost(postId, new TextMessage(message));
+    }
+
+    // The same frame instance is queued for every viewer, nothing is re-encoded per session.
+    public void broadcastToPost(String postId, TextMessage frame) {
+        deliverToLocalPost(postId, frame);
+        clusterRouter.publishToRoom(postId, frame.getPayload());
+    }
+
+    public boolean hasPostViewers(String postId) {
         Set<WebSocketSession> sessions = postSession.get(postId);
-        if (sessions != null) {
+        return sessions != null && !sessions.isEmpty();
+    }
+
+    public void removeSessions(WebSocketSession session) {
+        removeLocalUserSession(session);
+        outboundDispatcher.release(session);
+
+        Set<String> posts = sessionPosts.remove(session.getId());
+        if (posts != null) {
+            for (String postId : posts) {
+                leavePost(postId, session);
+            }
+        }
+    }
+
+    private void leavePost(String postId, WebSocketSession session) {
+        if (!postSession.containsKey(postId)) {
+            return;
+        }
+
+        Set<WebSocketSession> remaining = postSession.computeIfPresent(postId, (k, sessions) -> {
+            sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+        if (remaining == null) {
+            syncRoomPresence(postId);
+        }
+    }
+
+    private void removeLocalUserSession(WebSocketSession session) {
+        String userId = sessionUser.remove(session.getId());
+        if (userId == null) {
+            return;
+        }
+
+        Set<WebSocketSession> remaining = userSessions.computeIfPresent(userId, (k, sessions) -> {
             sessions.remove(session);
+            return sessions.isEmpty() ? null : sessions;
+        });
+        if (remaining == null) {
+            syncUserPresence(userId);
+        }
+    }
 
-            if (sessions.isEmpty()) {
-                postSession.remove(postId);
+    private void syncUserPresence(String userId) {
+        synchronized (presenceLock(userId)) {
+            if (userSessions.containsKey(userId)) {
+                clusterRouter.markUserPresent(userId);
+            } else {
+                clusterRouter.markUserAbsent(userId);
             }
-        } else {
         }
     }
 
-    public static void broadcastToPost(String postId, String message) {
-        Set<WebSocketSession> sessions = postSession.get(postId);
-        if (sessions != null) {
-            for (WebSocketSession session : sessions) {
-                if (session.isOpen()) {
-                    try {
-                        session.sendMessage(new org.springframework.web.socket.TextMessage(message));
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
-                }
+    private void syncRoomPresence(String postId) {
+        synchronized (presenceLock(postId)) {
+            if (postSession.containsKey(postId)) {
+                clusterRouter.markRoomPresent(postId);
+            } else {
+                clusterRouter.markRoomAbsent(postId);
             }
         }
     }
 
-    public static boolean hasPostViewers(String postId) {
-        Set<WebSocketSession> sessions = postSession.get(postId);
-        return sessions != null && !sessions.isEmpty();
+    private Object presenceLock(String key) {
+        return presenceLocks[Math.floorMod(key.hashCode(), presenceLocks.length)];
     }
 
-    public static void removeSessions(WebSocketSession session) {
-        userSession.entrySet().removeIf(entry -> entry.getValue().getId().equals(session.getId()));
+    private void deliverRemote(String scope, String target, String payload, String coalesceKey) {
+        if (WebSocketClusterRouter.SCOPE_USER.equals(scope)) {
+            deliverToLocalUser(target, new TextMessage(payload), coalesceKey);
+        } else if (WebSocketClusterRouter.SCOPE_ROOM.equals(scope)) {
+            deliverToLocalPost(target, new TextMessage(payload));
+        } else if (WebSocketClusterRouter.SCOPE_USERS.equals(scope)) {
+            TextMessage frame = new TextMessage(payload);
+            for (String userId : target.split(",")) {
+                deliverToLocalUser(userId, frame, null);
+            }
+        }
+    }
 
-        postSession.entrySet().removeIf(entry -> {
-            Set<WebSocketSession> sessions = entry.getValue();
-            sessions.remove(session);
-            return sessions.isEmpty();
-        });
+    private void deliverToLocalUser(String userId, TextMessage frame, String coalesceKey) {
+        Set<WebSocketSession> sessions = userSessions.get(userId);
+        if (sessions != null) {
+            for (WebSocketSession session : sessions) {
+                outboundDispatcher.send(session, frame, coalesceKey);
+            }
+        }
+    }
+
+    private void deliverToLocalPost(String postId, TextMessage frame) {
+        Set<WebSocketSession> sessions = postSession.get(postId);
+        if (sessions != null) {
+            for (WebSocketSession session : sessions) {
+                outboundDispatcher.send(session, frame);
+            }
+        }
     }
 }
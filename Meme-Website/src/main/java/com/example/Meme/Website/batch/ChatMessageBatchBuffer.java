@@ -0,0 +1,101 @@
+package com.example.Meme.Website.batch;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.models.ChatMessage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Component
+public class ChatMessageBatchBuffer {
+
+    @Data
+    @AllArgsConstructor
+    public static class PendingChatMessage {
+        private ChatMessage message;
+        private String journalId;
+    }
+
+    // FIFO across all rooms, so draining in order keeps every room's messages in send order.
+    private final Deque<PendingChatMessage> messageQueue = new ConcurrentLinkedDeque<>();
+    private final Map<String, ChatMessage> pendingById = new ConcurrentHashMap<>();
+    private final Map<String, ChatMessage> lastMessageByRoom = new ConcurrentHashMap<>();
+
+    public void bufferMessage(ChatMessage message, String journalId) {
+        pendingById.put(message.getId(), message);
+        messageQueue.offer(new PendingChatMessage(message, journalId));
+        recordLastMessage(message);
+    }
+
+    public void recordLastMessage(ChatMessage message) {
+        lastMessageByRoom.merge(message.getChatRoomId(), message,
+                (current, incoming) -> incoming.getTimestamp().before(current.getTimestamp()) ? current : incoming);
+    }
+
+    // Messages accepted but not written yet, so reads right after a send still find them.
+    public ChatMessage getPending(String messageId) {
+        return pendingById.get(messageId);
+    }
+
+    public boolean isPending(String messageId) {
+        return pendingById.containsKey(messageId);
+    }
+
+    // Edit/delete of a message that is not written yet. The changed copy is queued behind the original
+    // so the flush writes it last. Returns false once the message is persisted and Mongo has to be updated.
+    public boolean updatePending(String messageId, Consumer<ChatMessage> change) {
+        boolean[] updated = { false };
+        pendingById.computeIfPresent(messageId, (id, current) -> {
+            ChatMessage changed = current.toBuilder().build();
+            change.accept(changed);
+            messageQueue.offer(new PendingChatMessage(changed, null));
+            updated[0] = true;
+            return changed;
+        });
+        return updated[0];
+    }
+
+    public List<PendingChatMessage> drainMessages(int max) {
+        List<PendingChatMessage> batch = new ArrayList<>();
+        PendingChatMessage pending;
+        while (batch.size() < max && (pending = messageQueue.poll()) != null) {
+            batch.add(pending);
+        }
+        return batch;
+    }
+
+    public Map<String, ChatMessage> drainLastMessages() {
+        Map<String, ChatMessage> drained = new HashMap<>();
+        for (String chatRoomId : lastMessageByRoom.keySet()) {
+            ChatMessage message = lastMessageByRoom.remove(chatRoomId);
+            if (message != null) {
+                drained.put(chatRoomId, message);
+            }
+        }
+        return drained;
+    }
+
+    // Puts a failed batch back at the head of the queue in its original order.
+    public void requeue(List<PendingChatMessage> batch, Map<String, ChatMessage> lastMessages) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            messageQueue.offerFirst(batch.get(i));
+        }
+        lastMessages.values().forEach(this::recordLastMessage);
+    }
+
+    public void markPersisted(List<PendingChatMessage> batch) {
+        for (PendingChatMessage pending : batch) {
+            pendingById.remove(pending.getMessage().getId(), pending.getMessage());
+        }
+    }
+}
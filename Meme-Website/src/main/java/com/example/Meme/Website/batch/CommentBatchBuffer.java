@@ -8,19 +8,26 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.example.Meme.Website.models.Comments;
+import com.example.Meme.Website.services.LiveCounterService;
+import com.example.Meme.Website.services.MemeCache;
 
 @Component
 public class CommentBatchBuffer {
 
+    @Autowired
+    private LiveCounterService liveCounterService;
+
     private final Queue<Comments> commentQueue = new ConcurrentLinkedQueue<>();
     private final Map<String, Integer> memeCommentCountDeltas = new ConcurrentHashMap<>();
 
     public void bufferComment(Comments comment) {
         commentQueue.offer(comment);
         memeCommentCountDeltas.merge(comment.getMemeId(), 1, Integer::sum);
+        liveCounterService.record(comment.getMemeId(), MemeCache.COMMENTS, 1);
     }
 
     public List<Comments> drainComments() {
@@ -8,13 +8,22 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.example.Meme.Website.models.UserInteraction;
+import com.example.Meme.Website.services.InteractionStateService;
+import com.example.Meme.Website.services.LiveCounterService;
+import com.example.Meme.Website.services.MemeCache;
 
 @Component
 public class InteractionBatchBuffer {
 
+    @Autowired
+    private LiveCounterService liveCounterService;
+    @Autowired
+    private InteractionStateService interactionStateService;
+
     private final Queue<UserInteraction> interactionInsertQueue = new ConcurrentLinkedQueue<>();
     private final Queue<UserInteraction> interactionDeleteQueue = new ConcurrentLinkedQueue<>();
 
@@ -33,6 +42,8 @@ public class InteractionBatchBuffer {
             case UPLOAD -> memeUploadCountDelta.merge(interaction.getMemeId(), 1, Integer::sum);
             default -> throw new IllegalArgumentException("Unexpected value: " + interaction.getType());
         }
+        recordLive(interaction, 1);
+        interactionStateService.apply(interaction.getUserId(), interaction.getMemeId(), interaction.getType(), true);
     }
 
     public void bufferDelete(UserInteraction interaction) {
@@ -44,6 +55,24 @@ public class InteractionBatchBuffer {
             case UPLOAD -> memeUploadCountDelta.merge(interaction.getMemeId(), -1, Integer::sum);
             default -> throw new IllegalArgumentException("Unexpected value: " + interaction.getType());
         }
+        recordLive(interaction, -1);
+        interactionStateService.apply(interaction.getUserId(), interaction.getMemeId(), interaction.getType(), false);
+    }
+
+    // Post views only move the counter, there is no interaction document per view
+    public void bufferView(String memeId) {
+        memeViewCountDelta.merge(memeId, 1, Integer::sum);
+        liveCounterService.record(memeId, MemeCache.VIEWS, 1);
+    }
+
+    // Pending deltas are visible to readers before the flush, see LiveCounterService
+    private void recordLive(UserInteraction interaction, int delta) {
+        switch (interaction.getType()) {
+            case LIKE -> liveCounterService.record(interaction.getMemeId(), MemeCache.LIKES, delta);
+            case SAVE -> liveCounterService.record(interaction.getMemeId(), MemeCache.SAVES, delta);
+            case VIEW -> liveCounterService.record(interaction.getMemeId(), MemeCache.VIEWS, delta);
+            default -> { }
+        }
     }
 
     public List<UserInteraction> drinInsertBatch() {
@@ -1,9 +1,11 @@
 package com.example.Meme.Website.controller;
 
+import java.util.Date;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -47,8 +49,12 @@ public class ChatController {
     }
 
     @GetMapping("/recent")
-    public ResponseEntity<List<RecentChatDto>> getRecentChats(@AuthenticationPrincipal UserPrincipal user) {
-        List<RecentChatDto> recentChats = chatService.getRecentChats(user.getUserId());
+    public ResponseEntity<List<RecentChatDto>> getRecentChats(@AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date before,
+            @RequestParam(required = false) String beforeChatRoomId,
+            @RequestParam(defaultValue = "20") int size) {
+        List<RecentChatDto> recentChats = chatService.getRecentChats(user.getUserId(), before, beforeChatRoomId,
+                Math.min(size, 100));
         return ResponseEntity.ok(recentChats);
     }
 
@@ -67,10 +73,12 @@ public class ChatController {
             @AuthenticationPrincipal UserPrincipal user,
             @PathVariable String chatRoomId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date beforeTimestamp,
+            @RequestParam(required = false) String beforeId) {
 
         List<ChatMessageResponse> messages = chatService.getMessagesByChatRoom(chatRoomId, user.getUserId(), page,
-                size);
+                Math.min(size, 100), beforeTimestamp, beforeId);
         return ResponseEntity.ok(messages);
     }
 }
@@ -1,17 +1,87 @@
 package com.example.Meme.Website.controller;
 
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.Meme.Website.Scheduler.MemeCleanupService;
+import com.example.Meme.Website.Scheduler.NotificationRetentionScheduler;
+import com.example.Meme.Website.WebSockets.ChatFanoutService;
+import com.example.Meme.Website.WebSockets.InboundDispatcher;
+import com.example.Meme.Website.WebSockets.OutboundDispatcher;
+import com.example.Meme.Website.WebSockets.OutboundSession;
+import com.example.Meme.Website.services.MemeCache;
+import com.example.Meme.Website.services.NotificationDeliveryService;
 
+// Only /health/check is public; the metrics endpoints below require the ADMIN authority (SecurityConfig).
 @RestController
 @RequestMapping("/health")
 public class HealthCheck {
+
+    @Autowired
+    private InboundDispatcher inboundDispatcher;
+    @Autowired
+    private OutboundDispatcher outboundDispatcher;
+    @Autowired
+    private ChatFanoutService chatFanoutService;
+    @Autowired
+    private NotificationDeliveryService notificationDeliveryService;
+    @Autowired
+    private NotificationRetentionScheduler notificationRetentionScheduler;
+    @Autowired
+    private MemeCleanupService memeCleanupService;
+    @Autowired
+    private MemeCache memeCache;
     
     @GetMapping("/check")
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Server is up and running");
     }
+
+    @GetMapping("/websocket")
+    public ResponseEntity<Map<String, Object>> websocketMetrics() {
+        List<OutboundSession> outbound = outboundDispatcher.getSessionStats();
+
+        Map<String, Object> outboundSummary = new LinkedHashMap<>();
+        outboundSummary.put("sessions", outbound.size());
+        outboundSummary.put("queued", outbound.stream().mapToLong(OutboundSession::getQueueDepth).sum());
+        outboundSummary.put("dropped", outbound.stream().mapToLong(OutboundSession::getDroppedCount).sum());
+        outboundSummary.put("maxLagMs", outbound.stream().mapToLong(OutboundSession::getMaxLagMillis).max().orElse(0));
+        // Lags only, session ids are not exposed
+        outboundSummary.put("laggiestMs", outbound.stream()
+                .map(OutboundSession::getLastLagMillis)
+                .sorted(Comparator.reverseOrder())
+                .limit(10)
+                .collect(Collectors.toList()));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("inbound", inboundDispatcher.getMetrics());
+        body.put("outbound", outboundSummary);
+        body.put("chatFanout", chatFanoutService.getMetrics());
+        body.put("notificationDelivery", notificationDeliveryService.getMetrics());
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/notifications-retention")
+    public ResponseEntity<Map<String, Object>> notificationRetentionReport() {
+        return ResponseEntity.ok(notificationRetentionScheduler.getLastReport());
+    }
+
+    @GetMapping("/cleanup")
+    public ResponseEntity<Map<String, Object>> cleanupMetrics() {
+        return ResponseEntity.ok(memeCleanupService.getMetrics());
+    }
+
+    @GetMapping("/meme-cache")
+    public ResponseEntity<Map<String, Object>> memeCacheMetrics() {
+        return ResponseEntity.ok(memeCache.getMetrics());
+    }
 }
@@ -1,11 +1,16 @@
 package com.example.Meme.Website.controller;
 
+import java.util.Date;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.Meme.Website.models.UserPrincipal;
@@ -20,19 +25,26 @@ public class NotificationController {
 
     @GetMapping()
     public ResponseEntity<?> getNotificationsByUserId(
-            @AuthenticationPrincipal UserPrincipal user) {
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date before,
+            @RequestParam(required = false) String beforeId,
+            @RequestParam(defaultValue = "50") int size) {
         String username = user.getUsername();
         try {
-            return notificationService.getNotificationsByUsername(username);
+            return notificationService.getNotificationsByUsername(username, before, beforeId, Math.min(size, 100));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error fetching notifications: " + e.getMessage());
         }
     }
 
+    @GetMapping("/unread-count")
+    public ResponseEntity<?> getUnreadCount(@AuthenticationPrincipal UserPrincipal user) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationService.getUnreadCount(user.getUsername())));
+    }
+
     @PostMapping("/readAll")
     public ResponseEntity<?> markNotificatonsAsRead(
             @AuthenticationPrincipal UserPrincipal user) {
-        String username = user.getUsername();
-        return notificationService.markNotificationsAsRead(username);
+        return notificationService.markNotificationsAsRead(user.getUserId(), user.getUsername());
     }
 }
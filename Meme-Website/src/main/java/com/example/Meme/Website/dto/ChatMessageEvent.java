@@ -0,0 +1,27 @@
+package com.example.Meme.Website.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageEvent {
+    private String type;
+
+    @JsonUnwrapped
+    private ChatMessageResponse message;
+
+    // The recipient's recent-chat row update, carried on the CHAT frame instead of a separate UPDATE_RECENT_CHAT
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private JsonNode recentChat;
+
+    public ChatMessageEvent(String type, ChatMessageResponse message) {
+        this(type, message, null);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -16,6 +17,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Builder(toBuilder = true)
 @CompoundIndexes({
         @CompoundIndex(name = "room_time", def = "{'chatRoomId':1,'timestamp':1}"),
         @CompoundIndex(name = "sender_time", def = "{'senderId':1,'timestamp':1}")
@@ -4,6 +4,7 @@ import java.util.Date;
 import java.util.Map;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -15,6 +16,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@CompoundIndex(name = "user_inbox", def = "{'userId':1,'lastMessageAt':-1,'chatRoomId':-1}")
 public class ChatRoomSettings {
     @Id
     private String id;
@@ -35,6 +37,8 @@ public class ChatRoomSettings {
 
     private Date lastSeenAt;          // last read timestamp for this chat by user
 
+    private String lastReadMessageId; // read cursor, together with lastSeenAt
+
     private String theme;             // e.g., "dark", "light", "custom"
 
     // Notification settings (e.g., sound on/off)
@@ -44,4 +48,21 @@ public class ChatRoomSettings {
 
     // Optional user-specific metadata
     private Map<String, Object> metadata;
+
+    // Denormalized inbox row, maintained by ChatInboxService so /chat/recent is a single indexed query
+    private boolean groupChat;
+
+    private String peerUserId;        // the other participant of a 1:1 room
+
+    private String displayName;       // peer username or group name
+
+    private String displayAvatarUrl;
+
+    private String lastMessageId;
+
+    private String lastMessagePreview;
+
+    private Date lastMessageAt;
+
+    private long unreadCount;
 }
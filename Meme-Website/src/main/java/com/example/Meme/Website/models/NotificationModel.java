@@ -1,8 +1,11 @@
 package com.example.Meme.Website.models;
 
 import java.util.Date;
+import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -13,12 +16,15 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@CompoundIndex(name = "receiver_created", def = "{'receiverUsername':1,'createdAt':-1,'_id':-1}")
 public class NotificationModel {
     @Id
     private String id;
 
     private String senderUsername;
     private String receiverUsername;
+    @Indexed
+    private String receiverUserId;   // sessions are keyed by userId, used for live delivery
     private String profilePictureUrl;
     private String type;
     private String message;
@@ -28,4 +34,13 @@ public class NotificationModel {
     private Date createdAt = new Date();
 
     private Date readAt;
+    private Date expireAt;           // set when read, TTL-indexed, see NotificationRetentionPolicy
+
+    // Rolled-up notifications ("X and 41 others liked your meme"), see NotificationAggregationService
+    @Indexed(sparse = true)
+    private String groupKey;
+    private int actorCount = 1;       // distinct actors, exact while actors is below its cap
+    private List<String> recentActors;
+    private List<String> actors;      // distinct, so repeat events from one user count once; capped
+    private Date firstEventAt;        // the window is anchored here, createdAt moves to the newest event
 }
@@ -7,17 +7,24 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 
 public class UserPrincipal implements UserDetails {
 
     private userModel user;
+    private boolean admin;
 
     public UserPrincipal(userModel user) {
         this.user = user;
     }
 
+    public UserPrincipal(userModel user, boolean admin) {
+        this.user = user;
+        this.admin = admin;
+    }
+
     public static UserPrincipal from(Optional<userModel> optionalUser) {
         return optionalUser.map(UserPrincipal::new)
                           .orElseThrow(() -> new IllegalArgumentException("User not found"));
@@ -25,6 +32,9 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (admin) {
+            return List.of(new SimpleGrantedAuthority("USER"), new SimpleGrantedAuthority("ADMIN"));
+        }
         return Collections.singleton(new SimpleGrantedAuthority("USER"));
     }
 
@@ -10,6 +10,7 @@ public interface notificationRepository extends MongoRepository<NotificationMode
     List<NotificationModel> findByReceiverUsernameAndIsReadFalse(String receiverUsername);
     List<NotificationModel> findByReceiverUsername(String receiverUsername);
     void deleteAllByMemeIdIn(List<String> memeIds);
+    long countByReceiverUsernameAndIsReadFalse(String receiverUsername);
 
     
 }
@@ -41,6 +41,9 @@ public class AuthService {
     @Autowired
     private userRepository userRepository;
 
+    @Autowired
+    private InteractionStateService interactionStateService;
+
     @Autowired
     private userSettingsRepository userSettingsRepository;
 
@@ -147,6 +150,7 @@ public class AuthService {
         Map<String, String> tokens = generateAndStoreTokens(username, accessTokenExpiryMin, refreshTokenExpiryMin);
 
         log.info("✅ Authentication successful for username: '{}'", username);
+        interactionStateService.warmAsync(user.getUserId());
 
         return new AuthResponse(tokens.get("accessToken"), tokens.get("refreshToken"),
                 user.getUsername(), user.getUserId());
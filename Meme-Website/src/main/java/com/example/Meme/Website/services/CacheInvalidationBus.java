@@ -0,0 +1,149 @@
+package com.example.Meme.Website.services;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Fans meme/user/chat room change events out to every derived cache. Listeners on this node are called
+// synchronously before publish returns, other nodes get the event over Redis pub/sub and apply it
+// to their local caches. Each cache removes or patches just the affected entry.
+@Component
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    public static final String ENTITY_MEME = "MEME";
+    public static final String ENTITY_USER = "USER";
+    public static final String ENTITY_CHAT_ROOM = "CHAT_ROOM";
+
+    public static final String ACTION_UPDATED = "UPDATED";
+    public static final String ACTION_DELETED = "DELETED";
+    // Counter deltas just written to Mongo, fields: counter field -> (memeId -> delta)
+    public static final String ACTION_COUNTERS = "COUNTERS";
+
+    private static final String CHANNEL = "cache:invalidate";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+    // Resolved per event, several listeners also publish through the bus
+    @Autowired
+    private ObjectProvider<CacheInvalidationListener> listeners;
+
+    @Value("${cache.invalidation.cluster-enabled:true}")
+    private boolean clusterEnabled;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InvalidationEvent {
+        private String origin;
+        private String entity;
+        private String action;
+        private String id;
+        // Changed fields for UPDATED, applied in place by caches that can patch
+        private Map<String, Object> fields;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!clusterEnabled) {
+            return;
+        }
+
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    public void memeDeleted(String memeId) {
+        publish(ENTITY_MEME, ACTION_DELETED, memeId, Map.of());
+    }
+
+    public void memeUpdated(String memeId, Map<String, Object> fields) {
+        publish(ENTITY_MEME, ACTION_UPDATED, memeId, fields);
+    }
+
+    public void countersFlushed(String field, Map<String, Integer> deltas) {
+        publish(ENTITY_MEME, ACTION_COUNTERS, null, Map.of(field, deltas));
+    }
+
+    public void userUpdated(String userId, Map<String, Object> fields) {
+        publish(ENTITY_USER, ACTION_UPDATED, userId, fields);
+    }
+
+    public void chatRoomUpdated(String chatRoomId) {
+        publish(ENTITY_CHAT_ROOM, ACTION_UPDATED, chatRoomId, Map.of());
+    }
+
+    public void publish(String entity, String action, String id, Map<String, Object> fields) {
+        InvalidationEvent event = new InvalidationEvent(nodeId, entity, action, id, fields);
+        dispatch(event, true);
+
+        if (!clusterEnabled) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            log.error("❌ Failed to publish cache invalidation {} {} {}: {}", entity, action, id, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            InvalidationEvent event = objectMapper.readValue(message.getBody(), InvalidationEvent.class);
+            if (nodeId.equals(event.getOrigin())) {
+                return;
+            }
+            dispatch(event, false);
+        } catch (Exception e) {
+            log.error("❌ Failed to handle cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(InvalidationEvent event, boolean originNode) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onInvalidation(event, originNode);
+            } catch (Exception e) {
+                log.error("❌ {} failed to apply {} {} {}: {}", listener.getClass().getSimpleName(),
+                        event.getEntity(), event.getAction(), event.getId(), e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.Meme.Website.services;
+
+import com.example.Meme.Website.services.CacheInvalidationBus.InvalidationEvent;
+
+// Implemented by every cache that derives data from memes or users, see CacheInvalidationBus.
+public interface CacheInvalidationListener {
+
+    // Called on every node. originNode is true only where the change was published, which is where
+    // shared (Redis) caches are patched so each change is applied there once.
+    void onInvalidation(InvalidationEvent event, boolean originNode);
+}
@@ -0,0 +1,282 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.DBO.UserSummary;
+import com.example.Meme.Website.dto.RecentChatDto;
+import com.example.Meme.Website.models.ChatMessage;
+import com.example.Meme.Website.models.ChatRoom;
+import com.example.Meme.Website.models.ChatRoomSettings;
+import com.example.Meme.Website.repository.chatMessageRepository;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Per-user inbox rows live on ChatRoomSettings (one document per user per room). They are updated
+// incrementally when messages are flushed, when a room is read and when a peer changes their
+// profile, so the recent chats list never has to look at messages or users.
+@Service
+@Slf4j
+public class ChatInboxService {
+
+    private static final int PREVIEW_LENGTH = 100;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private ChatRoomCache chatRoomCache;
+    @Autowired
+    private chatMessageRepository chatMessageRepository;
+
+    // One page of the inbox, newest first. Pass the lastMessageAt and chatRoomId of the previous page's last
+    // row to continue, the room id breaks ties between rooms updated in the same millisecond.
+    public List<RecentChatDto> getInbox(String userId, Date before, String beforeChatRoomId, int size) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (before != null) {
+            if (beforeChatRoomId != null) {
+                criteria = criteria.orOperator(
+                        Criteria.where("lastMessageAt").lt(before),
+                        Criteria.where("lastMessageAt").is(before).and("chatRoomId").lt(beforeChatRoomId));
+            } else {
+                criteria = criteria.and("lastMessageAt").lt(before);
+            }
+        } else {
+            criteria = criteria.and("lastMessageAt").ne(null);
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "lastMessageAt").and(Sort.by(Sort.Direction.DESC, "chatRoomId")))
+                .limit(size);
+        query.fields().include("chatRoomId", "groupChat", "displayName", "displayAvatarUrl",
+                "lastMessagePreview", "lastMessageAt", "unreadCount");
+
+        return mongoTemplate.find(query, ChatRoomSettings.class).stream()
+                .map(row -> new RecentChatDto(
+                        row.getChatRoomId(),
+                        row.isGroupChat(),
+                        row.getDisplayName(),
+                        row.getDisplayAvatarUrl(),
+                        row.getLastMessagePreview(),
+                        row.getLastMessageAt(),
+                        row.getUnreadCount()))
+                .collect(Collectors.toList());
+    }
+
+    // Default settings plus inbox display info for every participant of a new room.
+    public List<ChatRoomSettings> newRoomSettings(ChatRoom room) {
+        Map<String, UserSummary> users = room.isGroupChat() ? Map.of() : chatRoomCache.getUsers(room.getParticipants());
+
+        List<ChatRoomSettings> settingsList = new ArrayList<>();
+        for (String userId : room.getParticipants()) {
+            ChatRoomSettings settings = new ChatRoomSettings();
+            settings.setChatRoomId(room.getId());
+            settings.setUserId(userId);
+            settings.setMuted(false);
+            settings.setPinned(false);
+            settings.setTheme("default");
+            settings.setWallpaper(null);
+            settings.setLastSeenAt(null);
+            applyDisplay(settings, room, userId, users);
+            settingsList.add(settings);
+        }
+        return settingsList;
+    }
+
+    // Called by ChatMessageBatchScheduler with each flushed batch: one bulk write for all rooms.
+    public void applyMessages(List<ChatMessage> messages, Collection<ChatMessage> lastMessages) {
+        List<WriteModel<Document>> writes = new ArrayList<>();
+
+        for (ChatMessage message : messages) {
+            // Messages the recipient already read past (read raced ahead of the flush) don't count
+            writes.add(new UpdateManyModel<>(
+                    Filters.and(
+                            Filters.eq("chatRoomId", message.getChatRoomId()),
+                            Filters.ne("userId", message.getSenderId()),
+                            Filters.or(
+                                    Filters.eq("lastSeenAt", null),
+                                    Filters.lt("lastSeenAt", message.getTimestamp()))),
+                    Updates.inc("unreadCount", 1)));
+        }
+
+        for (ChatMessage message : lastMessages) {
+            writes.add(new UpdateManyModel<>(
+                    Filters.and(
+                            Filters.eq("chatRoomId", message.getChatRoomId()),
+                            Filters.or(
+                                    Filters.eq("lastMessageAt", null),
+                                    Filters.lt("lastMessageAt", message.getTimestamp()))),
+                    Updates.combine(
+                            Updates.set("lastMessageId", message.getId()),
+                            Updates.set("lastMessagePreview", preview(message)),
+                            Updates.set("lastMessageAt", message.getTimestamp()))));
+        }
+
+        if (!writes.isEmpty()) {
+            mongoTemplate.getCollection("chatRoomSettings").bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        }
+    }
+
+    // Moves the read cursor to the room's latest message and clears the counter in a single document
+    // write, no matter how many messages were unread. Returns how many were unread before.
+    public long markRead(String chatRoomId, String userId) {
+        Query query = new Query(Criteria.where("chatRoomId").is(chatRoomId).and("userId").is(userId));
+        query.fields().include("unreadCount");
+
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("unreadCount").toValue(0)
+                .set("lastSeenAt").toValue(new Date())
+                .set("lastReadMessageId").toValueOf(Fields.field("lastMessageId"));
+
+        ChatRoomSettings previous = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(false), ChatRoomSettings.class);
+        return previous != null ? previous.getUnreadCount() : 0;
+    }
+
+    public long getUnreadCount(String chatRoomId, String userId) {
+        Query query = new Query(Criteria.where("chatRoomId").is(chatRoomId).and("userId").is(userId));
+        query.fields().include("unreadCount");
+        ChatRoomSettings settings = mongoTemplate.findOne(query, ChatRoomSettings.class);
+        return settings != null ? settings.getUnreadCount() : 0;
+    }
+
+    // A user's profile is shown in the inbox of everyone they have a 1:1 room with.
+    public void updatePeerProfile(String userId, Map<String, String> updates) {
+        Update update = new Update();
+        if (updates.containsKey("username")) {
+            update.set("displayName", updates.get("username"));
+        }
+        if (updates.containsKey("profilePictureUrl")) {
+            update.set("displayAvatarUrl", updates.get("profilePictureUrl"));
+        }
+        if (update.getUpdateObject().isEmpty()) {
+            return;
+        }
+
+        mongoTemplate.updateMulti(new Query(Criteria.where("peerUserId").is(userId)), update, ChatRoomSettings.class);
+    }
+
+    // Rooms created before the inbox fields existed, filled in once from the old per-room queries.
+    public int backfillRooms(List<ChatRoom> rooms) {
+        if (rooms.isEmpty()) {
+            return 0;
+        }
+
+        List<String> participantIds = rooms.stream()
+                .filter(room -> !room.isGroupChat())
+                .flatMap(room -> room.getParticipants().stream())
+                .distinct()
+                .toList();
+        Map<String, UserSummary> users = chatRoomCache.getUsers(participantIds);
+
+        Map<String, ChatMessage> lastMessages = new HashMap<>();
+        List<String> lastMessageIds = rooms.stream()
+                .map(ChatRoom::getLastMessageId)
+                .filter(id -> id != null)
+                .toList();
+        if (!lastMessageIds.isEmpty()) {
+            for (ChatMessage message : mongoTemplate.find(
+                    new Query(Criteria.where("_id").in(lastMessageIds)), ChatMessage.class)) {
+                lastMessages.put(message.getId(), message);
+            }
+        }
+
+        // Rows that already carry inbox data are left alone
+        Query migratedQuery = new Query(Criteria.where("chatRoomId").in(rooms.stream().map(ChatRoom::getId).toList())
+                .and("lastMessageAt").ne(null));
+        migratedQuery.fields().include("chatRoomId", "userId");
+        Set<String> migrated = mongoTemplate.find(migratedQuery, ChatRoomSettings.class).stream()
+                .map(row -> row.getChatRoomId() + ":" + row.getUserId())
+                .collect(Collectors.toSet());
+
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        for (ChatRoom room : rooms) {
+            ChatMessage lastMessage = room.getLastMessageId() != null ? lastMessages.get(room.getLastMessageId()) : null;
+
+            for (String userId : room.getParticipants()) {
+                if (migrated.contains(room.getId() + ":" + userId)) {
+                    continue;
+                }
+                ChatRoomSettings display = new ChatRoomSettings();
+                applyDisplay(display, room, userId, users);
+                Long unread = chatMessageRepository.countUnreadMessagesByChatRoomIdAndNotSender(room.getId(), userId);
+
+                writes.add(new UpdateOneModel<>(
+                        Filters.and(
+                                Filters.eq("chatRoomId", room.getId()),
+                                Filters.eq("userId", userId)),
+                        Updates.combine(
+                                Updates.set("groupChat", room.isGroupChat()),
+                                Updates.set("peerUserId", display.getPeerUserId()),
+                                Updates.set("displayName", display.getDisplayName()),
+                                Updates.set("displayAvatarUrl", display.getDisplayAvatarUrl()),
+                                Updates.set("lastMessageId", room.getLastMessageId()),
+                                Updates.set("lastMessagePreview", lastMessage != null ? preview(lastMessage) : null),
+                                Updates.set("lastMessageAt", lastMessage != null ? lastMessage.getTimestamp() : room.getLastUpdated()),
+                                Updates.set("unreadCount", unread != null ? unread : 0L),
+                                Updates.setOnInsert("isMuted", false),
+                                Updates.setOnInsert("isPinned", false),
+                                Updates.setOnInsert("theme", "default")),
+                        new UpdateOptions().upsert(true)));
+            }
+        }
+
+        if (!writes.isEmpty()) {
+            mongoTemplate.getCollection("chatRoomSettings").bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        }
+        return writes.size();
+    }
+
+    private void applyDisplay(ChatRoomSettings settings, ChatRoom room, String userId, Map<String, UserSummary> users) {
+        settings.setGroupChat(room.isGroupChat());
+        if (room.isGroupChat()) {
+            settings.setDisplayName(room.getGroupName());
+            settings.setDisplayAvatarUrl(room.getGroupAvatarUrl());
+            return;
+        }
+
+        room.getParticipants().stream()
+                .filter(participantId -> !participantId.equals(userId))
+                .findFirst()
+                .ifPresent(peerId -> {
+                    settings.setPeerUserId(peerId);
+                    UserSummary peer = users.get(peerId);
+                    if (peer != null) {
+                        settings.setDisplayName(peer.getUsername());
+                        settings.setDisplayAvatarUrl(peer.getProfilePictureUrl());
+                    }
+                });
+    }
+
+    private String preview(ChatMessage message) {
+        String text = message.getMessageText();
+        if (text == null || text.isBlank()) {
+            return message.getMessageType() != null ? "[" + message.getMessageType().name() + "]" : null;
+        }
+        return text.length() > PREVIEW_LENGTH ? text.substring(0, PREVIEW_LENGTH) : text;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.Meme.Website.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.batch.ChatMessageBatchBuffer.PendingChatMessage;
+import com.example.Meme.Website.models.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Redis Stream journal for chat messages that were delivered but not yet written to Mongo.
+// An entry is appended before delivery and deleted once its bulk write succeeded, so anything
+// left in the stream for long belongs to a node that died mid-batch and can be replayed.
+@Service
+@Slf4j
+public class ChatMessageJournal {
+
+    private static final String STREAM_KEY = "chat:journal";
+    private static final String PAYLOAD_FIELD = "payload";
+    private static final String CLAIM_KEY_PREFIX = "chat:journal:claim:";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Returns the journal entry id, or null when the journal is unavailable.
+    public String append(ChatMessage message) {
+        try {
+            MapRecord<String, String, String> record = StreamRecords.newRecord()
+                    .in(STREAM_KEY)
+                    .ofMap(Map.of(PAYLOAD_FIELD, objectMapper.writeValueAsString(message)));
+            RecordId id = redisTemplate.opsForStream().add(record);
+            return id != null ? id.getValue() : null;
+        } catch (Exception e) {
+            log.error("❌ Failed to journal chat message {}: {}", message.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    public void acknowledge(List<String> journalIds) {
+        if (journalIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForStream().delete(STREAM_KEY, journalIds.toArray(new String[0]));
+        } catch (Exception e) {
+            log.error("❌ Failed to trim chat journal: {}", e.getMessage());
+        }
+    }
+
+    // Only one node replays an orphaned entry. The claim expires, so an entry whose replaying node died
+    // as well is picked up again later.
+    public boolean claim(String journalId, Duration ttl) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(CLAIM_KEY_PREFIX + journalId, "1", ttl));
+        } catch (Exception e) {
+            log.error("❌ Failed to claim chat journal entry {}: {}", journalId, e.getMessage());
+            return false;
+        }
+    }
+
+    // Entries older than the cutoff that nobody acknowledged.
+    public List<PendingChatMessage> readOlderThan(long cutoffMillis, int limit) {
+        List<PendingChatMessage> orphaned = new ArrayList<>();
+        try {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().range(STREAM_KEY,
+                    Range.leftUnbounded(Range.Bound.inclusive(cutoffMillis + "-0")),
+                    Limit.limit().count(limit));
+            if (records == null) {
+                return orphaned;
+            }
+
+            for (MapRecord<String, Object, Object> record : records) {
+                Object payload = record.getValue().get(PAYLOAD_FIELD);
+                if (payload != null) {
+                    ChatMessage message = objectMapper.readValue(payload.toString(), ChatMessage.class);
+                    orphaned.add(new PendingChatMessage(message, record.getId().getValue()));
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to read chat journal: {}", e.getMessage());
+        }
+        return orphaned;
+    }
+}
@@ -7,28 +7,29 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import com.example.Meme.Website.DBO.UserSummary;
+import com.example.Meme.Website.batch.ChatMessageBatchBuffer;
 import com.example.Meme.Website.dto.ChatMessageResponse;
 import com.example.Meme.Website.models.ChatMessage;
-import com.example.Meme.Website.models.userModel;
 import com.example.Meme.Website.repository.chatMessageRepository;
 import com.example.Meme.Website.repository.userRepository;
-import com.mongodb.client.result.UpdateResult;
+
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 public class ChatMessageService {
 
     @Autowired
@@ -40,6 +41,41 @@ public class ChatMessageService {
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private ChatMessageBatchBuffer chatMessageBatchBuffer;
+
+    @Autowired
+    private ChatMessageJournal chatMessageJournal;
+
+    @Autowired
+    private ChatInboxService chatInboxService;
+
+    @Autowired
+    private ChatRoomCache chatRoomCache;
+
+    // Write-behind send path: the id is assigned here so the message can be delivered right away,
+    // the Redis journal makes it durable, and ChatMessageBatchScheduler writes it to Mongo in bulk.
+    public ChatMessage enqueueMessage(ChatMessage chatModel) {
+        if (chatModel.getId() == null) {
+            chatModel.setId(new ObjectId().toHexString());
+        }
+        if (chatModel.getTimestamp() == null) {
+            chatModel.setTimestamp(new Date());
+        }
+
+        String journalId = chatMessageJournal.append(chatModel);
+        if (journalId == null) {
+            log.warn("⚠️ Chat journal unavailable, saving message {} synchronously", chatModel.getId());
+            ChatMessage saved = chatMessageRepository.save(chatModel);
+            chatInboxService.applyMessages(List.of(saved), List.of());
+            chatMessageBatchBuffer.recordLastMessage(saved);
+            return saved;
+        }
+
+        chatMessageBatchBuffer.bufferMessage(chatModel, journalId);
+        return chatModel;
+    }
+
     public ChatMessage saveMessage(ChatMessage chatModel) {
         if (chatModel.getTimestamp() == null) {
             chatModel.setTimestamp(new Date());
@@ -75,29 +111,50 @@ public class ChatMessageService {
     // }).collect(Collectors.toList());
     // }
 
+    // Newest first. With beforeTimestamp (and beforeId of the same message to break ties) the page
+    // continues right after that message via the room_time index, so scrolling back costs the same at
+    // any depth. Without it the offset page is used, kept for older clients.
     public List<ChatMessageResponse> getMessagesByChatRoom(String chatRoomId, String currentUserId, int page,
-            int size) {
-        // Pageable pageable = PageRequest.of(page, size, Sort.by("timestamp").ascending());
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
-        Page<ChatMessage> messagesPage = chatMessageRepository.findByChatRoomIdOrderByTimestampDesc(chatRoomId,
-                pageable);
+            int size, Date beforeTimestamp, String beforeId) {
+        Criteria criteria = Criteria.where("chatRoomId").is(chatRoomId);
+        if (beforeTimestamp != null) {
+            if (beforeId != null && ObjectId.isValid(beforeId)) {
+                criteria = criteria.orOperator(
+                        Criteria.where("timestamp").lt(beforeTimestamp),
+                        Criteria.where("timestamp").is(beforeTimestamp).and("_id").lt(new ObjectId(beforeId)));
+            } else {
+                criteria = criteria.and("timestamp").lt(beforeTimestamp);
+            }
+        }
 
-        System.out.println(messagesPage.getTotalElements());
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "timestamp").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(size);
+        if (beforeTimestamp == null && page > 0) {
+            query.skip((long) page * size);
+        }
+        List<ChatMessage> messages = mongoTemplate.find(query, ChatMessage.class);
+
+        // One lookup for all distinct senders on the page, mostly served from the user cache
+        Map<String, UserSummary> senders = chatRoomCache.getUsers(messages.stream()
+                .map(ChatMessage::getSenderId)
+                .collect(Collectors.toSet()));
 
-        return messagesPage.getContent().stream().map(msg -> {
-            userModel sender = userRepository.findById(msg.getSenderId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+        return messages.stream().map(msg -> {
+            UserSummary sender = senders.get(msg.getSenderId());
 
             ChatMessageResponse dto = new ChatMessageResponse();
             dto.setMessageId(msg.getId());
             dto.setMessageText(msg.getMessageText());
             dto.setMessageType(msg.getMessageType());
             dto.setMediaUrl(msg.getMediaUrl());
-            dto.setTimestamp(msg.getTimestamp().toString());
+            dto.setTimestamp(msg.getTimestamp().toInstant().toString());
 
-            dto.setSenderId(sender.getUserId());
-            dto.setSenderUsername(sender.getUsername());
-            dto.setSenderProfilePictureUrl(sender.getProfilePictureUrl());
+            dto.setSenderId(msg.getSenderId());
+            if (sender != null) {
+                dto.setSenderUsername(sender.getUsername());
+                dto.setSenderProfilePictureUrl(sender.getProfilePictureUrl());
+            }
 
             dto.setOwn(msg.getSenderId().equals(currentUserId));
 
@@ -111,6 +168,10 @@ public class ChatMessageService {
     // }
 
     public Optional<ChatMessage> getMessageById(String messageId) {
+        ChatMessage pending = chatMessageBatchBuffer.getPending(messageId);
+        if (pending != null) {
+            return Optional.of(pending);
+        }
         return chatMessageRepository.findById(messageId);
     }
 
@@ -127,20 +188,32 @@ public class ChatMessageService {
     // });
     // }
 
+    // A message still in the write-behind buffer is changed there, otherwise its pending write would
+    // overwrite the change in Mongo.
     public void deleteMessage(String messageId) {
+        Consumer<ChatMessage> delete = msg -> msg.setDeleted(true);
+        if (chatMessageBatchBuffer.updatePending(messageId, delete)) {
+            return;
+        }
         chatMessageRepository.findById(messageId).ifPresent(msg -> {
-            msg.setDeleted(true);
+            delete.accept(msg);
             chatMessageRepository.save(msg);
         });
     }
 
     public void editMessage(String messageId, String newText, String newMediaUrl) {
-        chatMessageRepository.findById(messageId).ifPresent(msg -> {
+        Consumer<ChatMessage> edit = msg -> {
             if (newText != null)
                 msg.setMessageText(newText);
             if (newMediaUrl != null)
                 msg.setMediaUrl(newMediaUrl);
             msg.setEditedAt(new Date());
+        };
+        if (chatMessageBatchBuffer.updatePending(messageId, edit)) {
+            return;
+        }
+        chatMessageRepository.findById(messageId).ifPresent(msg -> {
+            edit.accept(msg);
             chatMessageRepository.save(msg);
         });
     }
@@ -174,21 +247,12 @@ public class ChatMessageService {
     // });
     // }
 
+    // Both served from the per-user counter and read cursor on ChatRoomSettings.
     public Long countUnreadMessagesByChatRoomIdAndNotSender(String chatRoomId, String userId) {
-        return chatMessageRepository.countUnreadMessagesByChatRoomIdAndNotSender(chatRoomId, userId);
+        return chatInboxService.getUnreadCount(chatRoomId, userId);
     }
 
     public long markMessagesAsReadByUserInChatRoom(String chatRoomId, String userId) {
-        Query query = new Query(
-            Criteria.where("chatRoomId").is(chatRoomId)
-                    .and("senderId").ne(userId)
-                    .and("isRead").is(false)
-        );
-
-        Update update = new Update().set("isRead", true);
-
-        UpdateResult result = mongoTemplate.updateMulti(query, update, ChatMessage.class);
-
-        return result.getModifiedCount(); // number of updated documents
+        return chatInboxService.markRead(chatRoomId, userId);
     }
 }
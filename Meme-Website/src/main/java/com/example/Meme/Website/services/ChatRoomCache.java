@@ -0,0 +1,207 @@
+package com.example.Meme.Website.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.DBO.UserSummary;
+import com.example.Meme.Website.models.ChatRoom;
+import com.example.Meme.Website.repository.chatRoomRepopsitory;
+import com.example.Meme.Website.repository.userRepository;
+import com.example.Meme.Website.services.CacheInvalidationBus.InvalidationEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+// In-process cache for the chat hot path: room membership and participant display info.
+// Rooms are loaded on first access and dropped when membership changes; both room and user
+// entries (username/picture) are dropped on every node via CacheInvalidationBus.
+@Service
+@Slf4j
+public class ChatRoomCache implements CacheInvalidationListener {
+
+    public record RoomSnapshot(String id, Set<String> participants, Set<String> admins, boolean groupChat,
+            String groupName, String groupAvatarUrl) {
+
+        public boolean hasParticipant(String userId) {
+            return participants.contains(userId);
+        }
+    }
+
+    @Autowired
+    private chatRoomRepopsitory chatRoomRepository;
+    @Autowired
+    private userRepository userRepository;
+
+    private final Cache<String, RoomSnapshot> rooms = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+
+    // "smallerId:largerId" -> room id for 1:1 rooms
+    private final Cache<String, String> directRooms = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+
+    private final Cache<String, UserSummary> usersById = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(15))
+            .build();
+
+    private final Cache<String, String> userIdsByUsername = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(15))
+            .build();
+
+    public Optional<RoomSnapshot> getRoom(String chatRoomId) {
+        if (chatRoomId == null) {
+            return Optional.empty();
+        }
+
+        RoomSnapshot cached = rooms.getIfPresent(chatRoomId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        return chatRoomRepository.findById(chatRoomId).map(this::put);
+    }
+
+    public Optional<RoomSnapshot> getDirectRoom(String userA, String userB) {
+        String key = directKey(userA, userB);
+        String roomId = directRooms.getIfPresent(key);
+        if (roomId != null) {
+            Optional<RoomSnapshot> room = getRoom(roomId);
+            if (room.isPresent()) {
+                return room;
+            }
+            directRooms.invalidate(key);
+        }
+
+        return chatRoomRepository.findOneToOneRoom(Set.of(userA, userB)).map(this::put);
+    }
+
+    public boolean isParticipant(String chatRoomId, String userId) {
+        return getRoom(chatRoomId).map(room -> room.hasParticipant(userId)).orElse(false);
+    }
+
+    public RoomSnapshot put(ChatRoom chatRoom) {
+        RoomSnapshot snapshot = new RoomSnapshot(
+                chatRoom.getId(),
+                chatRoom.getParticipants() != null ? Set.copyOf(chatRoom.getParticipants()) : Set.of(),
+                chatRoom.getAdmins() != null ? Set.copyOf(chatRoom.getAdmins()) : Set.of(),
+                chatRoom.isGroupChat(),
+                chatRoom.getGroupName(),
+                chatRoom.getGroupAvatarUrl());
+
+        rooms.put(snapshot.id(), snapshot);
+        if (!snapshot.groupChat() && snapshot.participants().size() == 2) {
+            List<String> pair = new ArrayList<>(snapshot.participants());
+            directRooms.put(directKey(pair.get(0), pair.get(1)), snapshot.id());
+        }
+        return snapshot;
+    }
+
+    public void invalidateRoom(String chatRoomId) {
+        RoomSnapshot removed = rooms.asMap().remove(chatRoomId);
+        if (removed != null && !removed.groupChat() && removed.participants().size() == 2) {
+            List<String> pair = new ArrayList<>(removed.participants());
+            directRooms.invalidate(directKey(pair.get(0), pair.get(1)));
+        }
+    }
+
+    public Optional<UserSummary> getUser(String userId) {
+        return Optional.ofNullable(getUsers(List.of(userId)).get(userId));
+    }
+
+    // Display info for several users, misses are loaded with a single $in query.
+    public Map<String, UserSummary> getUsers(Iterable<String> userIds) {
+        Map<String, UserSummary> result = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String userId : userIds) {
+            UserSummary cached = usersById.getIfPresent(userId);
+            if (cached != null) {
+                result.put(userId, cached);
+            } else {
+                missing.add(userId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (UserSummary user : userRepository.findUserSummariesByUserIdIn(missing)) {
+                cacheUser(user);
+                result.put(user.getUserId(), user);
+            }
+        }
+        return result;
+    }
+
+    public Optional<UserSummary> getUserByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+
+        String userId = userIdsByUsername.getIfPresent(username);
+        if (userId != null) {
+            Optional<UserSummary> user = getUser(userId);
+            if (user.isPresent() && username.equals(user.get().getUsername())) {
+                return user;
+            }
+            userIdsByUsername.invalidate(username);
+        }
+
+        return userRepository.findByUsername(username)
+                .map(user -> cacheUser(new UserSummary(user.getUserId(), user.getUsername(),
+                        user.getProfilePictureUrl())));
+    }
+
+    public void invalidateUser(String userId) {
+        UserSummary removed = usersById.asMap().remove(userId);
+        if (removed != null && removed.getUsername() != null) {
+            userIdsByUsername.invalidate(removed.getUsername());
+        }
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event, boolean originNode) {
+        if (CacheInvalidationBus.ENTITY_USER.equals(event.getEntity())) {
+            invalidateUser(event.getId());
+        } else if (CacheInvalidationBus.ENTITY_CHAT_ROOM.equals(event.getEntity()) && !originNode) {
+            // The saving node already holds the new snapshot, the others reload on next access
+            invalidateRoom(event.getId());
+        }
+    }
+
+    // Same shape as ProfileService.getUserDetailsByUsername so callers can switch over directly.
+    public static Map<String, String> toDetails(UserSummary user) {
+        if (user == null) {
+            return null;
+        }
+        Map<String, String> details = new LinkedHashMap<>();
+        details.put("userId", user.getUserId());
+        details.put("username", user.getUsername());
+        details.put("profilePictureUrl", user.getProfilePictureUrl());
+        return details;
+    }
+
+    private UserSummary cacheUser(UserSummary user) {
+        usersById.put(user.getUserId(), user);
+        if (user.getUsername() != null) {
+            userIdsByUsername.put(user.getUsername(), user.getUserId());
+        }
+        return user;
+    }
+
+    private static String directKey(String userA, String userB) {
+        return userA.compareTo(userB) <= 0 ? userA + ":" + userB : userB + ":" + userA;
+    }
+}
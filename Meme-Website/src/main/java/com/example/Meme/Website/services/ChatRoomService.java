@@ -60,6 +60,15 @@ public class ChatRoomService {
     @Autowired
     private chatRoomSettingsRepository chatRoomSettingsRepository;
 
+    @Autowired
+    private ChatRoomCache chatRoomCache;
+
+    @Autowired
+    private ChatInboxService chatInboxService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     public Optional<ChatRoom> findOneToOneRoom(String senderId, String toUserId) {
         return chatRoomRepository.findOneToOneRoom(Set.of(senderId, toUserId));
     }
@@ -78,18 +87,9 @@ public class ChatRoomService {
                     // chatRoom = chatRoomRepository.save(chatRoom);
 
                     ChatRoom savedChatRoom = chatRoomRepository.save(chatRoom);
+                    chatRoomCache.put(savedChatRoom);
                     // Initialize default ChatRoomSettings for all participants
-                    participants.forEach(userId -> {
-                        ChatRoomSettings settings = new ChatRoomSettings();
-                        settings.setChatRoomId(savedChatRoom.getId());
-                        settings.setUserId(userId);
-                        settings.setMuted(false);
-                        settings.setPinned(false);
-                        settings.setTheme("default");
-                        settings.setWallpaper(null);
-                        settings.setLastSeenAt(null);
-                        chatRoomSettingsRepository.save(settings);
-                    });
+                    createDefaultSettings(savedChatRoom);
 
                     return chatRoom;
                 });
@@ -99,6 +99,19 @@ public class ChatRoomService {
         return chatRoomRepository.findById(id);
     }
 
+    // Membership/metadata only, served from memory after the first load.
+    public Optional<ChatRoomCache.RoomSnapshot> getCachedChatRoom(String id) {
+        return chatRoomCache.getRoom(id);
+    }
+
+    public Optional<ChatRoomCache.RoomSnapshot> getCachedOneToOneRoom(String senderId, String toUserId) {
+        return chatRoomCache.getDirectRoom(senderId, toUserId);
+    }
+
+    public boolean isParticipant(String chatRoomId, String userId) {
+        return chatRoomCache.isParticipant(chatRoomId, userId);
+    }
+
     public List<ChatRoom> getUserChatRooms(String userId) {
         return chatRoomRepository.findByParticipantsContaining(userId);
     }
@@ -119,8 +132,25 @@ public class ChatRoomService {
         return chatRoomSettingsRepository.save(settings);
     }
 
+    // Settings double as the participants' inbox rows, so they are created with display info filled in.
+    public List<ChatRoomSettings> createDefaultSettings(ChatRoom chatRoom) {
+        return chatRoomSettingsRepository.saveAll(chatInboxService.newRoomSettings(chatRoom));
+    }
+
+    public long markRead(String chatRoomId, String userId) {
+        return chatInboxService.markRead(chatRoomId, userId);
+    }
+
+    public long getUnreadCount(String chatRoomId, String userId) {
+        return chatInboxService.getUnreadCount(chatRoomId, userId);
+    }
+
     public ChatRoom saveChatRoom(ChatRoom chatRoom) {
-        return chatRoomRepository.save(chatRoom);
+        ChatRoom saved = chatRoomRepository.save(chatRoom);
+        // Participants or admins may have changed, replace the cached snapshot here and drop it elsewhere.
+        chatRoomCache.put(saved);
+        cacheInvalidationBus.chatRoomUpdated(saved.getId());
+        return saved;
     }
 
     public ChatRoom getChatRoomBetweenUsers(String senderId, String receiverId) {
@@ -1,6 +1,7 @@
 package com.example.Meme.Website.services;
 
 import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -30,6 +31,8 @@ public class ChatService {
     private userRepository userRepository;
     @Autowired
     private ProfileService profileService;
+    @Autowired
+    private ChatInboxService chatInboxService;
 
     // public List<RecentChatDto> getRecentChats(String userId) {
     // List<ChatRoom> chatRooms = chatRoomService.getUserChatRooms(userId);
@@ -65,50 +68,9 @@ public class ChatService {
     // return recentChats;
     // }
 
-    public List<RecentChatDto> getRecentChats(String userId) {
-        List<ChatRoom> chatRooms = chatRoomService.getUserChatRooms(userId);
-
-        List<RecentChatDto> recentChats = chatRooms.stream().map(room -> {
-            ChatMessage lastMessage = null;
-            if (room.getLastMessageId() != null) {
-                lastMessage = chatMessageService.getMessageById(room.getLastMessageId()).orElse(null);
-            }
-
-            Long unreadCount = chatMessageService.countUnreadMessagesByChatRoomIdAndNotSender(room.getId(), userId);
-
-            Set<String> otherParticipants = room.getParticipants().stream()
-                    .filter(p -> !p.equals(userId))
-                    .collect(Collectors.toSet());
-
-            String displayName = null;
-            String displayAvatar = null;
-
-            if (room.isGroupChat()) {
-                displayName = room.getGroupName();
-                displayAvatar = room.getGroupAvatarUrl();
-            } else if (!otherParticipants.isEmpty()) {
-                // 1:1 chat → fetch other user's profile
-                String otherUserId = otherParticipants.iterator().next();
-                Optional<userModel> otherUserOpt = userRepository.findById(otherUserId);
-                if (otherUserOpt.isPresent()) {
-                    userModel otherUser = otherUserOpt.get();
-                    displayName = otherUser.getUsername();
-                    displayAvatar = otherUser.getProfilePictureUrl(); // Assuming your UserModel has avatar
-                }
-            }
-
-            return new RecentChatDto(
-                    room.getId(),
-                    room.isGroupChat(),
-                    displayName,
-                    displayAvatar,
-                    lastMessage != null ? lastMessage.getMessageText() : null,
-                    lastMessage != null ? lastMessage.getTimestamp() : room.getLastUpdated(),
-                    unreadCount);
-        }).sorted(Comparator.comparing(RecentChatDto::getLastUpdated).reversed())
-                .collect(Collectors.toList());
-
-        return recentChats;
+    // Served from the denormalized inbox rows, one indexed query per page.
+    public List<RecentChatDto> getRecentChats(String userId, Date before, String beforeChatRoomId, int size) {
+        return chatInboxService.getInbox(userId, before, beforeChatRoomId, size);
     }
 
     // Get messages for a specific chat room
@@ -117,8 +79,9 @@ public class ChatService {
     // return chatMessageService.getMessagesByChatRoom(chatRoomId, userId);
     // }
 
-    public List<ChatMessageResponse> getMessagesByChatRoom(String chatRoomId, String userId, int page, int size) {
-        return chatMessageService.getMessagesByChatRoom(chatRoomId, userId, page, size);
+    public List<ChatMessageResponse> getMessagesByChatRoom(String chatRoomId, String userId, int page, int size,
+            Date beforeTimestamp, String beforeId) {
+        return chatMessageService.getMessagesByChatRoom(chatRoomId, userId, page, size, beforeTimestamp, beforeId);
     }
 
     // public String getRoomChatId(String userId, String username){
@@ -1,7 +1,11 @@
 package com.example.Meme.Website.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.bson.types.ObjectId;
@@ -23,10 +27,14 @@ import com.example.Meme.Website.models.UserInteraction;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.ObjectCannedACL;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -46,6 +54,8 @@ public class CloudService {
     @Autowired
     private ProfileService profileService;
 
+    private static final int S3_DELETE_BATCH = 1000;
+
     @Value("${aws.s3.bucket}")
     private String bucket;
     @Value("${aws.region}")
@@ -180,6 +190,42 @@ public class CloudService {
         }
     }
 
+    // Batched variant for cleanup: one DeleteObjects call per 1000 keys (the S3 limit) instead of one
+    // request per object. Returns the urls that could not be deleted so the caller can retry them;
+    // urls outside our bucket are skipped, deleting a missing key counts as success.
+    public List<String> deleteFromS3ByPublicUrls(Collection<String> publicUrls) {
+        Map<String, String> urlByKey = new LinkedHashMap<>();
+        for (String publicUrl : publicUrls) {
+            String key = publicUrl != null ? extractS3KeyFromUrl(publicUrl) : null;
+            if (key != null && !key.isEmpty()) {
+                urlByKey.put(key, publicUrl);
+            }
+        }
+
+        List<String> failed = new ArrayList<>();
+        List<String> keys = new ArrayList<>(urlByKey.keySet());
+        for (int from = 0; from < keys.size(); from += S3_DELETE_BATCH) {
+            List<String> chunk = keys.subList(from, Math.min(from + S3_DELETE_BATCH, keys.size()));
+            try {
+                DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucket)
+                        .delete(Delete.builder()
+                                .objects(chunk.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                                .quiet(true)
+                                .build())
+                        .build());
+                response.errors().forEach(error -> {
+                    log.warn("Failed to delete from S3: {} ({})", error.key(), error.code());
+                    failed.add(urlByKey.get(error.key()));
+                });
+            } catch (Exception e) {
+                log.warn("Failed to delete {} objects from S3: {}", chunk.size(), e.getMessage());
+                chunk.forEach(key -> failed.add(urlByKey.get(key)));
+            }
+        }
+        return failed;
+    }
+
     private String extractS3KeyFromUrl(String publicUrl) {
         String baseUrl = "https://" + bucket + ".s3." + region + ".amazonaws.com/";
         if (publicUrl.startsWith(baseUrl)) {
@@ -0,0 +1,196 @@
+package com.example.Meme.Website.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.DBO.MemeInteractionDBO;
+import com.example.Meme.Website.models.ActionType;
+import com.example.Meme.Website.repository.userInteractionsRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Which memes a user has liked or saved, as two Redis sets per user. Feeds and meme pages ask for a
+// whole page at once (SMISMEMBER, Redis 6.2+) instead of querying userInteractions on every request.
+// Sets are loaded from Mongo on login or on first use and then kept current by the interaction
+// buffer, so they also reflect likes/saves that are not flushed yet (ops buffered while the user is
+// cold are journaled and replayed onto the Mongo load).
+@Service
+@Slf4j
+public class InteractionStateService {
+
+    private static final String LIKED_KEY_PREFIX = "user:liked:";
+    private static final String SAVED_KEY_PREFIX = "user:saved:";
+    private static final String WARM_KEY_PREFIX = "user:interactions:warm:";
+    // Last buffered op per TYPE:memeId, kept until it is surely flushed so a warm can overlay it on Mongo
+    private static final String PENDING_KEY_PREFIX = "user:interactions:pending:";
+    private static final Duration PENDING_TTL = Duration.ofMinutes(10);
+
+    // Every op is journaled, the sets are only touched once loaded (a fresh set would claim the user
+    // liked nothing else)
+    private static final RedisScript<Long> APPLY_IF_WARM = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[3], ARGV[3], ARGV[1]) "
+                    + "redis.call('PEXPIRE', KEYS[3], ARGV[4]) "
+                    + "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end "
+                    + "if ARGV[1] == '0' then return redis.call('SREM', KEYS[2], ARGV[2]) end "
+                    + "local added = redis.call('SADD', KEYS[2], ARGV[2]) "
+                    + "redis.call('PEXPIRE', KEYS[2], redis.call('PTTL', KEYS[1])) "
+                    + "return added",
+            Long.class);
+
+    // Loads the Mongo state (ARGV[3..2+n] liked, the rest saved) and overlays the journaled ops. Only a cold
+    // user is rebuilt, and atomically, so ops applied to warm sets meanwhile are never wiped.
+    private static final RedisScript<Long> WARM_IF_COLD = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end "
+                    + "redis.call('DEL', KEYS[2], KEYS[3]) "
+                    + "local liked = tonumber(ARGV[2]) + 2 "
+                    + "for i = 3, liked, 1000 do "
+                    + "redis.call('SADD', KEYS[2], unpack(ARGV, i, math.min(i + 999, liked))) end "
+                    + "for i = liked + 1, #ARGV, 1000 do "
+                    + "redis.call('SADD', KEYS[3], unpack(ARGV, i, math.min(i + 999, #ARGV))) end "
+                    + "local pending = redis.call('HGETALL', KEYS[4]) "
+                    + "for i = 1, #pending, 2 do "
+                    + "local type, memeId = string.match(pending[i], '^(%u+):(.+)$') "
+                    + "local key = type == 'LIKE' and KEYS[2] or KEYS[3] "
+                    + "if pending[i + 1] == '1' then redis.call('SADD', key, memeId) "
+                    + "else redis.call('SREM', key, memeId) end "
+                    + "end "
+                    + "redis.call('SET', KEYS[1], '1', 'PX', ARGV[1]) "
+                    + "redis.call('PEXPIRE', KEYS[2], ARGV[1]) "
+                    + "redis.call('PEXPIRE', KEYS[3], ARGV[1]) "
+                    + "return 1",
+            Long.class);
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private userInteractionsRepository userInteractionRepository;
+
+    @Value("${interactions.state.ttl-hours:24}")
+    private long ttlHours;
+
+    // Called on login so the first feed page is already served from Redis
+    @Async
+    public void warmAsync(String userId) {
+        try {
+            warm(userId);
+        } catch (Exception e) {
+            log.error("❌ Failed to warm interaction state for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    public void warm(String userId) {
+        Query query = new Query(Criteria.where("userId").is(userId)
+                .and("type").in(ActionType.LIKE, ActionType.SAVE));
+        query.fields().include("memeId").include("type").exclude("_id");
+
+        List<String> liked = new ArrayList<>();
+        List<String> saved = new ArrayList<>();
+        for (MemeInteractionDBO interaction : mongoTemplate.find(query, MemeInteractionDBO.class, "userInteractions")) {
+            if (interaction.getMemeId() == null) continue;
+            if (interaction.getType() == ActionType.LIKE) liked.add(interaction.getMemeId());
+            if (interaction.getType() == ActionType.SAVE) saved.add(interaction.getMemeId());
+        }
+
+        List<String> args = new ArrayList<>(liked.size() + saved.size() + 2);
+        args.add(String.valueOf(Duration.ofHours(ttlHours).toMillis()));
+        args.add(String.valueOf(liked.size()));
+        args.addAll(liked);
+        args.addAll(saved);
+
+        Long loaded = redisTemplate.execute(WARM_IF_COLD, List.of(WARM_KEY_PREFIX + userId,
+                LIKED_KEY_PREFIX + userId, SAVED_KEY_PREFIX + userId, PENDING_KEY_PREFIX + userId), args.toArray());
+        if (Long.valueOf(1).equals(loaded)) {
+            log.info("🔥 Warmed interaction state for user {}: {} liked, {} saved", userId, liked.size(),
+                    saved.size());
+        }
+    }
+
+    // Called by the interaction buffer for every buffered like/save and unlike/unsave
+    public void apply(String userId, String memeId, ActionType type, boolean added) {
+        String prefix = keyPrefix(type);
+        if (prefix == null || userId == null || memeId == null) return;
+
+        try {
+            redisTemplate.execute(APPLY_IF_WARM,
+                    List.of(WARM_KEY_PREFIX + userId, prefix + userId, PENDING_KEY_PREFIX + userId),
+                    added ? "1" : "0", memeId, type.name() + ":" + memeId, String.valueOf(PENDING_TTL.toMillis()));
+        } catch (Exception e) {
+            // Stale state would stick until the sets expire, drop them so the next read reloads
+            log.error("❌ Failed to update interaction state for user {}: {}", userId, e.getMessage());
+            try {
+                redisTemplate.delete(WARM_KEY_PREFIX + userId);
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    public boolean has(String userId, String memeId, ActionType type) {
+        return statesFor(userId, List.of(memeId)).getOrDefault(memeId, Set.of()).contains(type);
+    }
+
+    // LIKE/SAVE per meme for the given page, memes without either are left out.
+    public Map<String, Set<ActionType>> statesFor(String userId, Collection<String> memeIds) {
+        Map<String, Set<ActionType>> states = new HashMap<>();
+        if (userId == null || memeIds.isEmpty()) return states;
+
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(WARM_KEY_PREFIX + userId))) {
+                warm(userId);
+            }
+
+            Object[] ids = memeIds.toArray();
+            collect(states, redisTemplate.opsForSet().isMember(LIKED_KEY_PREFIX + userId, ids), ActionType.LIKE);
+            collect(states, redisTemplate.opsForSet().isMember(SAVED_KEY_PREFIX + userId, ids), ActionType.SAVE);
+            return states;
+        } catch (Exception e) {
+            log.error("❌ Failed to read interaction state for user {}, querying Mongo: {}", userId, e.getMessage());
+        }
+
+        states.clear();
+        for (MemeInteractionDBO interaction : userInteractionRepository.findUserInteractionMemeIdsByType(
+                userId, new HashSet<>(memeIds), List.of(ActionType.LIKE, ActionType.SAVE),
+                PageRequest.of(0, memeIds.size() * 2))) {
+            if (interaction.getMemeId() != null && interaction.getType() != null) {
+                states.computeIfAbsent(interaction.getMemeId(), k -> new HashSet<>()).add(interaction.getType());
+            }
+        }
+        return states;
+    }
+
+    private static void collect(Map<String, Set<ActionType>> states, Map<Object, Boolean> members, ActionType type) {
+        if (members == null) return;
+        members.forEach((memeId, member) -> {
+            if (Boolean.TRUE.equals(member)) {
+                states.computeIfAbsent(memeId.toString(), k -> new HashSet<>()).add(type);
+            }
+        });
+    }
+
+    private static String keyPrefix(ActionType type) {
+        return switch (type) {
+            case LIKE -> LIKED_KEY_PREFIX;
+            case SAVE -> SAVED_KEY_PREFIX;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.Meme.Website.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.models.Meme;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Like/save/view/comment counts as users should see them: the persisted value plus the deltas still
+// waiting in the batch buffers of every node. Buffering an interaction adds to a per-meme Redis hash
+// (HINCRBY), flushing it to Mongo patches the cached memes over the bus and takes the same amount
+// back out, so reads are a cache lookup plus one hash read. If Redis is unreachable this node's own
+// pending deltas are used instead.
+@Service
+@Slf4j
+public class LiveCounterService {
+
+    private static final String PENDING_KEY_PREFIX = "meme:counters:pending:";
+    // Deltas of a node that died before flushing are lost from Mongo too, let them fade out
+    private static final Duration PENDING_TTL = Duration.ofMinutes(10);
+    private static final List<String> FIELDS = List.of(MemeCache.LIKES, MemeCache.SAVES, MemeCache.VIEWS,
+            MemeCache.COMMENTS);
+
+    // Takes the flushed deltas (ARGV[2..]) back out of each hash that still exists; an expired hash would
+    // otherwise come back as a permanent negative delta without a TTL
+    private static final RedisScript<Long> DECREMENT_IF_EXISTS = new DefaultRedisScript<>(
+            "local cleared = 0 "
+                    + "for i, key in ipairs(KEYS) do "
+                    + "if redis.call('EXISTS', key) == 1 then "
+                    + "if redis.call('HINCRBY', key, ARGV[1], -tonumber(ARGV[i + 1])) == 0 then "
+                    + "redis.call('HDEL', key, ARGV[1]) end "
+                    + "cleared = cleared + 1 end end "
+                    + "return cleared",
+            Long.class);
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+    @Autowired
+    private MemeCache memeCache;
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    // memeId -> field -> delta buffered on this node and not yet flushed
+    private final Map<String, Map<String, Integer>> localPending = new ConcurrentHashMap<>();
+
+    public record LiveCounts(int likes, int saves, int views, int comments) {
+    }
+
+    // Called by the batch buffers for every counted interaction
+    public void record(String memeId, String field, int delta) {
+        if (memeId == null || delta == 0) return;
+        localPending.computeIfAbsent(memeId, k -> new ConcurrentHashMap<>()).merge(field, delta, Integer::sum);
+
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.opsForHash().increment(PENDING_KEY_PREFIX + memeId, field, delta);
+                    ops.expire(PENDING_KEY_PREFIX + memeId, PENDING_TTL);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("❌ Failed to record pending {} for meme {}: {}", field, memeId, e.getMessage());
+        }
+    }
+
+    // Called by the batch schedulers once the deltas are in Mongo
+    public void flushed(String field, Map<String, Integer> deltas) {
+        if (deltas.isEmpty()) return;
+
+        // Caches first: a read in between counts the delta twice for a moment instead of losing it
+        cacheInvalidationBus.countersFlushed(field, deltas);
+
+        deltas.forEach((memeId, delta) -> localPending.computeIfPresent(memeId, (id, fields) -> {
+            fields.computeIfPresent(field, (f, pending) -> pending - delta == 0 ? null : pending - delta);
+            return fields.isEmpty() ? null : fields;
+        }));
+
+        // One script call for the whole batch, scripts can't be pipelined safely (no EVAL fallback)
+        List<String> keys = new ArrayList<>(deltas.size());
+        List<String> args = new ArrayList<>(deltas.size() + 1);
+        args.add(field);
+        deltas.forEach((memeId, delta) -> {
+            keys.add(PENDING_KEY_PREFIX + memeId);
+            args.add(String.valueOf(delta));
+        });
+
+        try {
+            redisTemplate.execute(DECREMENT_IF_EXISTS, keys, args.toArray());
+        } catch (Exception e) {
+            log.error("❌ Failed to clear pending {} for {} memes: {}", field, deltas.size(), e.getMessage());
+        }
+    }
+
+    public LiveCounts get(String memeId) {
+        return memeCache.get(memeId)
+                .map(meme -> live(meme, pendingFor(List.of(memeId)).get(memeId)))
+                .orElse(null);
+    }
+
+    // Copy of the meme with live counts, the original is returned when it is already current.
+    public Meme withLiveCounts(Meme meme) {
+        if (meme == null) return null;
+        return withLiveCounts(List.of(meme)).get(0);
+    }
+
+    // Same for a page of memes. Persisted counts come from the cache (kept current by flushes, the
+    // given instance may be older), pending deltas from one Redis round trip for all of them.
+    public List<Meme> withLiveCounts(List<Meme> memes) {
+        List<String> ids = memes.stream().map(Meme::getId).toList();
+        Map<String, Meme> persisted = memeCache.resolve(memes);
+        Map<String, Map<String, Integer>> pending = pendingFor(ids);
+
+        List<Meme> result = new ArrayList<>(memes.size());
+        for (Meme meme : memes) {
+            LiveCounts counts = live(persisted.getOrDefault(meme.getId(), meme), pending.get(meme.getId()));
+            if (counts.likes() == meme.getLikecount() && counts.saves() == meme.getSaveCount()
+                    && counts.views() == meme.getViewCount() && counts.comments() == meme.getCommentsCount()) {
+                result.add(meme);
+                continue;
+            }
+
+            Meme copy = meme.toBuilder().build();
+            copy.setLikecount(counts.likes());
+            copy.setSaveCount(counts.saves());
+            copy.setViewCount(counts.views());
+            copy.setCommentsCount(counts.comments());
+            result.add(copy);
+        }
+        return result;
+    }
+
+    private static LiveCounts live(Meme meme, Map<String, Integer> pending) {
+        Map<String, Integer> deltas = pending != null ? pending : Map.of();
+        return new LiveCounts(
+                Math.max(0, meme.getLikecount() + deltas.getOrDefault(MemeCache.LIKES, 0)),
+                Math.max(0, meme.getSaveCount() + deltas.getOrDefault(MemeCache.SAVES, 0)),
+                Math.max(0, meme.getViewCount() + deltas.getOrDefault(MemeCache.VIEWS, 0)),
+                Math.max(0, meme.getCommentsCount() + deltas.getOrDefault(MemeCache.COMMENTS, 0)));
+    }
+
+    // Cluster-wide pending deltas per meme, one pipelined HGETALL for all ids
+    private Map<String, Map<String, Integer>> pendingFor(Collection<String> memeIds) {
+        Map<String, Map<String, Integer>> pending = new LinkedHashMap<>();
+        if (memeIds.isEmpty()) return pending;
+        List<String> ids = new ArrayList<>(memeIds);
+
+        try {
+            List<Object> hashes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (String memeId : ids) {
+                        ops.opsForHash().entries(PENDING_KEY_PREFIX + memeId);
+                    }
+                    return null;
+                }
+            });
+
+            for (int i = 0; i < ids.size(); i++) {
+                if (hashes.get(i) instanceof Map<?, ?> hash && !hash.isEmpty()) {
+                    Map<String, Integer> deltas = new HashMap<>();
+                    for (String field : FIELDS) {
+                        Object value = hash.get(field);
+                        if (value != null) {
+                            deltas.put(field, Integer.parseInt(value.toString()));
+                        }
+                    }
+                    pending.put(ids.get(i), deltas);
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to read pending counters, using local deltas: {}", e.getMessage());
+            for (String memeId : ids) {
+                Map<String, Integer> local = localPending.get(memeId);
+                if (local != null) {
+                    pending.put(memeId, new HashMap<>(local));
+                }
+            }
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.Meme.Website.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.models.Meme;
+import com.example.Meme.Website.services.CacheInvalidationBus.InvalidationEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+// In-process cache of Meme documents by id. Memes are written rarely and read on every feed, like,
+// save and comment, so lookups go through here; misses of a multi-get are loaded with one $in.
+// Caffeine's W-TinyLFU keeps frequently read memes over one-off feed candidates. Counter flushes
+// from any node patch cached copies (copy-on-write, cached instances are shared and never mutated);
+// those, deletes and profile changes all arrive over the CacheInvalidationBus. A deleted meme is
+// tombstoned, since its Mongo delete is buffered a read before the flush would otherwise cache it again.
+@Service
+@Slf4j
+public class MemeCache implements CacheInvalidationListener {
+
+    public static final String LIKES = "likecount";
+    public static final String SAVES = "saveCount";
+    public static final String VIEWS = "viewCount";
+    public static final String COMMENTS = "commentsCount";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Cache<String, Meme> memes = Caffeine.newBuilder()
+            .maximumSize(20_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .recordStats()
+            .build();
+
+    // Outlives the buffered delete by far, after the flush the document is gone anyway
+    private final Cache<String, Boolean> deleted = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    public Optional<Meme> get(String memeId) {
+        if (memeId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(getAll(List.of(memeId)).get(memeId));
+    }
+
+    // Found memes in the order of the given ids, unknown ids are left out.
+    public Map<String, Meme> getAll(Collection<String> memeIds) {
+        Map<String, Meme> result = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String memeId : memeIds) {
+            if (memeId == null || deleted.getIfPresent(memeId) != null) continue;
+            Meme cached = memes.getIfPresent(memeId);
+            if (cached != null) {
+                result.put(memeId, cached);
+            } else if (ObjectId.isValid(memeId)) {
+                result.put(memeId, null);
+                missing.add(memeId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<ObjectId> ids = missing.stream().map(ObjectId::new).toList();
+            for (Meme meme : mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), Meme.class)) {
+                if (deleted.getIfPresent(meme.getId()) != null) continue;
+                memes.put(meme.getId(), meme);
+                // The delete may have landed while Mongo was being read
+                if (deleted.getIfPresent(meme.getId()) != null) {
+                    memes.invalidate(meme.getId());
+                    continue;
+                }
+                result.put(meme.getId(), meme);
+            }
+            result.values().removeIf(meme -> meme == null);
+        }
+        return result;
+    }
+
+    public List<Meme> getAllAsList(Collection<String> memeIds) {
+        return new ArrayList<>(getAll(memeIds).values());
+    }
+
+    // Memes already loaded by some other query (feed candidates), saves a lookup later.
+    public void putAll(Collection<Meme> loaded) {
+        for (Meme meme : loaded) {
+            if (meme != null && meme.getId() != null && deleted.getIfPresent(meme.getId()) == null) {
+                memes.put(meme.getId(), meme);
+            }
+        }
+    }
+
+    // Cached copies for the given memes; ones not cached yet are adopted as they are (they were just
+    // loaded by the caller's query) instead of being read again.
+    public Map<String, Meme> resolve(Collection<Meme> loaded) {
+        Map<String, Meme> result = new LinkedHashMap<>();
+        for (Meme meme : loaded) {
+            if (meme == null || meme.getId() == null || deleted.getIfPresent(meme.getId()) != null) continue;
+            result.put(meme.getId(), memes.asMap().computeIfAbsent(meme.getId(), id -> meme));
+        }
+        return result;
+    }
+
+    public void invalidate(String memeId) {
+        memes.invalidate(memeId);
+    }
+
+    // Applied on every node right after a batch scheduler wrote the same deltas to Mongo
+    public void applyCounterDeltas(String field, Map<String, Integer> deltas) {
+        ToIntFunction<Meme> getter;
+        BiConsumer<Meme, Integer> setter;
+        switch (field) {
+            case LIKES -> { getter = Meme::getLikecount; setter = Meme::setLikecount; }
+            case SAVES -> { getter = Meme::getSaveCount; setter = Meme::setSaveCount; }
+            case VIEWS -> { getter = Meme::getViewCount; setter = Meme::setViewCount; }
+            case COMMENTS -> { getter = Meme::getCommentsCount; setter = Meme::setCommentsCount; }
+            default -> throw new IllegalArgumentException("Unknown meme counter: " + field);
+        }
+
+        deltas.forEach((memeId, delta) -> memes.asMap().computeIfPresent(memeId, (id, cached) -> {
+            Meme updated = cached.toBuilder().build();
+            setter.accept(updated, getter.applyAsInt(cached) + delta);
+            return updated;
+        }));
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event, boolean originNode) {
+        if (CacheInvalidationBus.ENTITY_MEME.equals(event.getEntity())) {
+            if (CacheInvalidationBus.ACTION_COUNTERS.equals(event.getAction())) {
+                event.getFields().forEach((field, deltas) -> applyCounterDeltas(field, toDeltas(deltas)));
+            } else if (CacheInvalidationBus.ACTION_DELETED.equals(event.getAction())) {
+                deleted.put(event.getId(), Boolean.TRUE);
+                memes.invalidate(event.getId());
+            } else {
+                memes.invalidate(event.getId());
+            }
+        } else if (CacheInvalidationBus.ENTITY_USER.equals(event.getEntity())
+                && event.getFields() != null && !event.getFields().isEmpty()) {
+            // Uploader name/picture are denormalized onto memes; bounded scan of this node's entries
+            memes.asMap().values().removeIf(meme -> event.getId().equals(meme.getUserId()));
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        CacheStats stats = memes.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", memes.estimatedSize());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("evictions", stats.evictionCount());
+        return metrics;
+    }
+
+    // Events from other nodes arrive as JSON, numbers may come back as any Number type
+    private static Map<String, Integer> toDeltas(Object value) {
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        if (value instanceof Map<?, ?> map) {
+            map.forEach((memeId, delta) -> {
+                if (delta instanceof Number number) {
+                    deltas.put(memeId.toString(), number.intValue());
+                }
+            });
+        }
+        return deltas;
+    }
+}
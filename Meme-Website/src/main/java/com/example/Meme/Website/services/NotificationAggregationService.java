@@ -0,0 +1,209 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.models.NotificationModel;
+import com.example.Meme.Website.repository.notificationRepository;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Rolls likes/saves/follows up into one notification per (receiver, type, meme) while it is unread
+// and its first event is younger than the window, so a hot meme still opens a new group every window. Each flushed batch becomes one bulk upsert; the rolled-up documents
+// are read back once so the receiver gets a single updated notification instead of one per event.
+@Service
+@Slf4j
+public class NotificationAggregationService {
+
+    private static final int MAX_RECENT_ACTORS = 3;
+    // Bounds the document and the per-upsert dedupe; past it new actors are counted without being tracked
+    private static final int MAX_TRACKED_ACTORS = 1000;
+
+    private static final Map<String, String> AGGREGATED_VERBS = Map.of(
+            "LIKE", "liked your meme",
+            "SAVE", "saved your meme",
+            "FOLLOW", "started following you");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private notificationRepository notificationRepository;
+
+    @Value("${notifications.aggregation.types:LIKE,SAVE,FOLLOW}")
+    private Set<String> aggregatedTypes;
+
+    @Value("${notifications.aggregation.window-ms:3600000}")
+    private long windowMs;
+
+    // rolledUp: the aggregated documents as stored, to be delivered once persisted
+    public record PersistResult(List<NotificationModel> rolledUp, Map<String, Long> newUnreadByReceiver) {
+    }
+
+    public boolean isAggregated(NotificationModel notification) {
+        return aggregatedTypes.contains(notification.getType()) && AGGREGATED_VERBS.containsKey(notification.getType());
+    }
+
+    // Plain notifications get their id up front so they can be delivered before the batch is written.
+    public List<NotificationModel> prepareImmediate(List<NotificationModel> notifications) {
+        List<NotificationModel> immediate = new ArrayList<>();
+        for (NotificationModel notification : notifications) {
+            if (!isAggregated(notification)) {
+                if (notification.getId() == null) {
+                    notification.setId(new ObjectId().toHexString());
+                }
+                immediate.add(notification);
+            }
+        }
+        return immediate;
+    }
+
+    public PersistResult persist(List<NotificationModel> notifications) {
+        List<NotificationModel> plain = new ArrayList<>();
+        Map<String, List<NotificationModel>> groups = new LinkedHashMap<>();
+
+        for (NotificationModel notification : notifications) {
+            if (isAggregated(notification)) {
+                groups.computeIfAbsent(groupKey(notification), k -> new ArrayList<>()).add(notification);
+            } else {
+                plain.add(notification);
+            }
+        }
+
+        List<NotificationModel> rolledUp = new ArrayList<>();
+        Map<String, Long> newUnread = new HashMap<>();
+
+        if (!plain.isEmpty()) {
+            notificationRepository.saveAll(plain);
+            plain.forEach(n -> newUnread.merge(n.getReceiverUsername(), 1L, Long::sum));
+        }
+
+        if (!groups.isEmpty()) {
+            Date windowStart = new Date(System.currentTimeMillis() - windowMs);
+            List<String> keys = new ArrayList<>(groups.keySet());
+            List<UpdateOneModel<Document>> upserts = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                upserts.add(upsertGroup(key, groups.get(key), windowStart));
+            }
+
+            BulkWriteResult result = mongoTemplate.getCollection("notifications")
+                    .bulkWrite(upserts, new BulkWriteOptions().ordered(false));
+
+            // Only a newly opened group is a new unread notification, later events just update it
+            for (BulkWriteUpsert upsert : result.getUpserts()) {
+                NotificationModel first = groups.get(keys.get(upsert.getIndex())).get(0);
+                newUnread.merge(first.getReceiverUsername(), 1L, Long::sum);
+            }
+
+            Query rolledUpQuery = new Query(Criteria.where("groupKey").in(keys)
+                    .and("isRead").is(false)
+                    .and("firstEventAt").gte(windowStart));
+            rolledUpQuery.fields().exclude("actors");
+            mongoTemplate.find(rolledUpQuery, NotificationModel.class).forEach(n -> rolledUp.add(describe(n)));
+            log.info("🧮 Rolled {} notification events into {} groups", notifications.size() - plain.size(), keys.size());
+        }
+
+        return new PersistResult(rolledUp, newUnread);
+    }
+
+    private UpdateOneModel<Document> upsertGroup(String key, List<NotificationModel> events, Date windowStart) {
+        NotificationModel latest = events.stream()
+                .max(Comparator.comparing(NotificationModel::getCreatedAt))
+                .orElseThrow();
+        Date earliest = events.stream()
+                .map(NotificationModel::getCreatedAt)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+
+        // Newest first, no duplicates within the batch
+        List<String> actors = new ArrayList<>(new LinkedHashSet<>(events.stream()
+                .sorted(Comparator.comparing(NotificationModel::getCreatedAt).reversed())
+                .map(NotificationModel::getSenderUsername)
+                .toList()));
+
+        Bson filter = Filters.and(
+                Filters.eq("groupKey", key),
+                Filters.eq("receiverUsername", latest.getReceiverUsername()),
+                Filters.eq("type", latest.getType()),
+                Filters.eq("memeId", latest.getMemeId()),
+                Filters.eq("isRead", false),
+                Filters.gte("firstEventAt", windowStart));
+
+        Document trackedActors = new Document("$ifNull", List.of("$actors", List.of()));
+        Document newActorsAndDisplay = new Document("$set", new Document()
+                .append("newActors", new Document("$filter", new Document()
+                        .append("input", literal(actors))
+                        .append("cond", new Document("$not", List.of(
+                                new Document("$in", List.of("$$this", trackedActors)))))))
+                .append("recentActors", new Document("$slice", List.of(
+                        new Document("$concatArrays", List.of(
+                                literal(actors),
+                                new Document("$filter", new Document()
+                                        .append("input", new Document("$ifNull", List.of("$recentActors", List.of())))
+                                        .append("cond", new Document("$not", List.of(
+                                                new Document("$in", List.of("$$this", literal(actors))))))))),
+                        MAX_RECENT_ACTORS)))
+                .append("receiverUserId", literal(latest.getReceiverUserId()))
+                .append("senderUsername", literal(latest.getSenderUsername()))
+                .append("profilePictureUrl", literal(latest.getProfilePictureUrl()))
+                .append("createdAt", latest.getCreatedAt())
+                .append("firstEventAt", new Document("$ifNull", List.of("$firstEventAt", earliest))));
+
+        // Repeat events from an actor past the cap are counted again, only groups that large are approximate
+        Document actorCount = new Document("$set", new Document()
+                .append("actorCount", new Document("$add", List.of(
+                        new Document("$ifNull", List.of("$actorCount", 0)), new Document("$size", "$newActors"))))
+                .append("actors", new Document("$slice", List.of(
+                        new Document("$concatArrays", List.of(trackedActors, "$newActors")), MAX_TRACKED_ACTORS))));
+
+        return new UpdateOneModel<>(filter, List.of(newActorsAndDisplay, actorCount, new Document("$unset", "newActors")),
+                new UpdateOptions().upsert(true));
+    }
+
+    // "alice liked your meme" or "alice and 2 others liked your meme", rendered from the distinct actor
+    // count whenever a rolled-up notification is delivered or read.
+    public NotificationModel describe(NotificationModel notification) {
+        String verb = AGGREGATED_VERBS.get(notification.getType());
+        if (notification.getGroupKey() == null || verb == null) {
+            return notification;
+        }
+
+        int others = notification.getActorCount() - 1;
+        notification.setMessage(notification.getSenderUsername()
+                + (others > 0 ? " and " + others + (others == 1 ? " other " : " others ") : " ")
+                + verb);
+        return notification;
+    }
+
+    private static String groupKey(NotificationModel notification) {
+        return notification.getReceiverUsername() + "|" + notification.getType() + "|"
+                + (notification.getMemeId() != null ? notification.getMemeId() : "");
+    }
+
+    // User-provided strings must never be read as field paths inside a pipeline update
+    private static Document literal(Object value) {
+        return new Document("$literal", value);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.Meme.Website.services;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.TextMessage;
+
+import com.example.Meme.Website.DBO.UserSummary;
+import com.example.Meme.Website.WebSockets.WebSocketSessionManager;
+import com.example.Meme.Website.models.NotificationModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Real-time push of notifications, off the scheduler thread and independent of the Mongo write.
+// Receivers are addressed by userId (the key sessions are registered under), each notification is
+// serialized once and handed to the receiver's per-session outbound queues. Latency is measured
+// from the event time (createdAt) to the moment the frame is queued.
+@Service
+@Slf4j
+public class NotificationDeliveryService {
+
+    @Autowired
+    private WebSocketSessionManager webSocketSessionManager;
+    @Autowired
+    private ChatRoomCache chatRoomCache;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notifications.delivery.threads:4}")
+    private int threads;
+
+    private ExecutorService executor;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong unresolved = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "notif-delivery-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void deliver(List<NotificationModel> notifications) {
+        for (NotificationModel notification : notifications) {
+            executor.execute(() -> deliverOne(notification));
+        }
+    }
+
+    private void deliverOne(NotificationModel notification) {
+        String userId = resolveReceiver(notification);
+        if (userId == null) {
+            unresolved.incrementAndGet();
+            return;
+        }
+
+        try {
+            TextMessage frame = new TextMessage(objectMapper.writeValueAsString(notification));
+            // A rolled-up notification replaces its previous version in a slow session's queue
+            String coalesceKey = notification.getGroupKey() != null ? "notif:" + notification.getGroupKey() : null;
+            webSocketSessionManager.sendToUser(userId, frame, coalesceKey);
+
+            delivered.incrementAndGet();
+            if (notification.getCreatedAt() != null) {
+                long latency = Math.max(0, System.currentTimeMillis() - notification.getCreatedAt().getTime());
+                totalLatencyMs.addAndGet(latency);
+                maxLatencyMs.accumulateAndGet(latency, Math::max);
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.error("❌ Failed to deliver notification {} to {}: {}", notification.getId(), userId, e.getMessage());
+        }
+    }
+
+    // Older producers only set the username; fall back to the cached username -> userId lookup.
+    private String resolveReceiver(NotificationModel notification) {
+        if (notification.getReceiverUserId() != null) {
+            return notification.getReceiverUserId();
+        }
+        return chatRoomCache.getUserByUsername(notification.getReceiverUsername())
+                .map(UserSummary::getUserId)
+                .orElse(null);
+    }
+
+    public Map<String, Long> getMetrics() {
+        long count = delivered.get();
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("delivered", count);
+        metrics.put("unresolved", unresolved.get());
+        metrics.put("failed", failed.get());
+        metrics.put("avgLatencyMs", count == 0 ? 0 : totalLatencyMs.get() / count);
+        metrics.put("maxLatencyMs", maxLatencyMs.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Per-type lifetime of a notification once it is read. A read notification gets an expireAt that the
+// TTL index (see NotificationRetentionScheduler) acts on; types that are archived instead get none and
+// leave the hot collection through the archive pass.
+@Component
+public class NotificationRetentionPolicy {
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    @Value("#{${notifications.retention.read-ttl-days:{LIKE: 7, SAVE: 7, FOLLOW: 30, COMMENT: 30}}}")
+    private Map<String, Integer> readTtlDays;
+
+    @Value("${notifications.retention.default-read-ttl-days:30}")
+    private int defaultReadTtlDays;
+
+    @Value("${notifications.retention.max-unread-per-user:500}")
+    private int maxUnreadPerUser;
+
+    @Value("${notifications.retention.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${notifications.retention.archive.types:COMMENT,FOLLOW}")
+    private Set<String> archiveTypes;
+
+    @Value("${notifications.retention.archive.after-days:30}")
+    private int archiveAfterDays;
+
+    public int getMaxUnreadPerUser() {
+        return maxUnreadPerUser;
+    }
+
+    public boolean isArchiveEnabled() {
+        return archiveEnabled && !archiveTypes.isEmpty();
+    }
+
+    public Set<String> getArchiveTypes() {
+        return archiveTypes;
+    }
+
+    public Date archiveCutoff() {
+        return new Date(System.currentTimeMillis() - archiveAfterDays * DAY_MS);
+    }
+
+    // Pipeline stage computing expireAt = readAt + ttl(type) on the server, so marking a whole inbox
+    // read (or stamping legacy rows) stays a single updateMany whatever the mix of types.
+    public Document expiryStage() {
+        List<Document> branches = new ArrayList<>();
+        if (isArchiveEnabled()) {
+            for (String type : archiveTypes) {
+                branches.add(new Document("case", new Document("$eq", List.of("$type", type)))
+                        .append("then", null));
+            }
+        }
+        readTtlDays.forEach((type, days) -> {
+            if (!isArchiveEnabled() || !archiveTypes.contains(type)) {
+                branches.add(new Document("case", new Document("$eq", List.of("$type", type)))
+                        .append("then", expiry(days)));
+            }
+        });
+
+        Object expireAt = branches.isEmpty()
+                ? expiry(defaultReadTtlDays)
+                : new Document("$switch", new Document("branches", branches)
+                        .append("default", expiry(defaultReadTtlDays)));
+        return new Document("$set", new Document("expireAt", expireAt));
+    }
+
+    private static Document expiry(int days) {
+        return new Document("$add", List.of(
+                new Document("$ifNull", List.of("$readAt", "$$NOW")),
+                days * DAY_MS));
+    }
+}
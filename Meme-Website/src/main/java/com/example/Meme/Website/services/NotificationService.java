@@ -1,9 +1,21 @@
 package com.example.Meme.Website.services;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
@@ -12,16 +24,65 @@ import com.example.Meme.Website.WebSockets.WebSocketSessionManager;
 import com.example.Meme.Website.models.NotificationModel;
 import com.example.Meme.Website.repository.notificationRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.UpdateResult;
+
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 public class NotificationService {
 
+    private static final String UNREAD_KEY_PREFIX = "notif:unread:";
+    // Receivers with notifications being written right now, the count query can't tell if it saw them
+    private static final String UNREAD_WRITES_KEY_PREFIX = "notif:unread-writes:";
+    // Set when an increment found no counter, a seed counted before that write would miss it
+    private static final String UNREAD_STALE_KEY_PREFIX = "notif:unread-stale:";
+    private static final long UNREAD_MARKER_TTL_MS = 30_000;
+
+    private static final RedisScript<Long> BEGIN_UNREAD_WRITE = new DefaultRedisScript<>(
+            "local n = redis.call('INCR', KEYS[1]) redis.call('PEXPIRE', KEYS[1], ARGV[1]) return n",
+            Long.class);
+
+    // Only bump counters that were already seeded from Mongo, a fresh key would undercount older unread rows
+    private static final RedisScript<Long> FINISH_UNREAD_WRITE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 1 and redis.call('DECR', KEYS[2]) <= 0 then redis.call('DEL', KEYS[2]) end "
+                    + "if ARGV[1] == '0' then return 0 end "
+                    + "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('INCRBY', KEYS[1], ARGV[1]) end "
+                    + "redis.call('SET', KEYS[3], '1', 'PX', ARGV[2]) return -1",
+            Long.class);
+
+    // The count is cached only if no write overlapped it, otherwise the next read counts again
+    private static final RedisScript<Long> SEED_UNREAD = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 1 or redis.call('EXISTS', KEYS[3]) == 1 then return 0 end "
+                    + "if redis.call('SET', KEYS[1], ARGV[1], 'NX') then return 1 end return 0",
+            Long.class);
+
     @Autowired
     private notificationRepository notificationRepository;
     
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private WebSocketSessionManager webSocketSessionManager;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private NotificationDeliveryService notificationDeliveryService;
+
+    @Autowired
+    private NotificationAggregationService notificationAggregationService;
+
+    @Autowired
+    private NotificationRetentionPolicy notificationRetentionPolicy;
+
     public void sendNotification(String sender, String recepient, String type, String message, String profilePictureUrl, String memeId) {
         NotificationModel notification = new NotificationModel();
         notification.setSenderUsername(sender);
@@ -33,35 +94,155 @@ public class NotificationService {
         notification.setRead(false);
         notification.setCreatedAt(new Date());
 
-        notificationRepository.save(notification);
-
-        try{
-            String jsonNotification = objectMapper.writeValueAsString(notification);
-            WebSocketSessionManager.sendToUser(recepient, jsonNotification);
+        beginUnreadWrites(List.of(recepient));
+        boolean saved = false;
+        try {
+            notificationRepository.save(notification);
+            saved = true;
+        } finally {
+            finishUnreadWrites(List.of(recepient), saved ? Map.of(recepient, 1L) : Map.of());
         }
-        catch(IOException e){
-            e.printStackTrace();
+        notificationDeliveryService.deliver(List.of(notification));
+
+    }
+
+    // Newest first, one indexed range scan on (receiverUsername, createdAt, _id) per page.
+    // before/beforeId are the createdAt and id of the last notification of the previous page.
+    public List<NotificationModel> getNotifications(String username, Date before, String beforeId, int size) {
+        Criteria criteria = Criteria.where("receiverUsername").is(username);
+        if (before != null) {
+            if (beforeId != null && ObjectId.isValid(beforeId)) {
+                criteria = criteria.orOperator(
+                        Criteria.where("createdAt").lt(before),
+                        Criteria.where("createdAt").is(before).and("_id").lt(new ObjectId(beforeId)));
+            } else {
+                criteria = criteria.and("createdAt").lt(before);
+            }
         }
-        
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(size);
+        query.fields().include("senderUsername", "profilePictureUrl", "type", "message", "isRead", "memeId",
+                "createdAt", "groupKey", "actorCount", "recentActors");
+
+        List<NotificationModel> notifications = mongoTemplate.find(query, NotificationModel.class);
+        notifications.forEach(notificationAggregationService::describe);
+        return notifications;
     }
 
-    public ResponseEntity<?> getNotificationsByUsername(String username) {
+    public ResponseEntity<?> getNotificationsByUsername(String username, Date before, String beforeId, int size) {
         try {
-            return ResponseEntity.ok(notificationRepository.findByReceiverUsername(username));
+            return ResponseEntity.ok(getNotifications(username, before, beforeId, size));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error fetching notifications: " + e.getMessage());
         }
     }
 
-    public ResponseEntity<?> markNotificationsAsRead(String username) {
+    // Bell badge. Served from Redis; the first read after a reset or eviction seeds it with one count query.
+    public long getUnreadCount(String username) {
+        String key = UNREAD_KEY_PREFIX + username;
         try {
-            var notifications = notificationRepository.findByReceiverUsernameAndIsReadFalse(username);
-            for (NotificationModel notification : notifications) {
-                notification.setRead(true);
-                notification.setReadAt(new Date());
-                notificationRepository.save(notification);
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Math.max(0, Long.parseLong(cached));
             }
-            return ResponseEntity.ok("Notifications marked as read");
+        } catch (Exception e) {
+            log.error("❌ Failed to read unread notification count for {}: {}", username, e.getMessage());
+        }
+
+        try {
+            redisTemplate.delete(UNREAD_STALE_KEY_PREFIX + username);
+        } catch (Exception e) {
+            log.error("❌ Failed to clear unread notification marker for {}: {}", username, e.getMessage());
+        }
+
+        long count = notificationRepository.countByReceiverUsernameAndIsReadFalse(username);
+        try {
+            redisTemplate.execute(SEED_UNREAD, unreadKeys(username), String.valueOf(count));
+        } catch (Exception e) {
+            log.error("❌ Failed to seed unread notification count for {}: {}", username, e.getMessage());
+        }
+        return count;
+    }
+
+    // Called before notifications for these receivers are written, so a seed racing the write is skipped.
+    public void beginUnreadWrites(Collection<String> receivers) {
+        for (String username : receivers) {
+            try {
+                redisTemplate.execute(BEGIN_UNREAD_WRITE, List.of(UNREAD_WRITES_KEY_PREFIX + username),
+                        String.valueOf(UNREAD_MARKER_TTL_MS));
+            } catch (Exception e) {
+                log.error("❌ Failed to mark unread notification write for {}: {}", username, e.getMessage());
+            }
+        }
+    }
+
+    // Called after the write with the per-receiver totals of new unread rows, one INCRBY per receiver.
+    public void finishUnreadWrites(Collection<String> receivers, Map<String, Long> countsByReceiver) {
+        for (String username : receivers) {
+            try {
+                redisTemplate.execute(FINISH_UNREAD_WRITE, unreadKeys(username),
+                        String.valueOf(countsByReceiver.getOrDefault(username, 0L)), String.valueOf(UNREAD_MARKER_TTL_MS));
+            } catch (Exception e) {
+                log.error("❌ Failed to update unread notification count for {}: {}", username, e.getMessage());
+            }
+        }
+    }
+
+    private static List<String> unreadKeys(String username) {
+        return List.of(UNREAD_KEY_PREFIX + username, UNREAD_WRITES_KEY_PREFIX + username,
+                UNREAD_STALE_KEY_PREFIX + username);
+    }
+
+    public void resetUnreadCount(String username) {
+        try {
+            redisTemplate.opsForValue().set(UNREAD_KEY_PREFIX + username, "0");
+        } catch (Exception e) {
+            log.error("❌ Failed to reset unread notification count for {}: {}", username, e.getMessage());
+        }
+    }
+
+    // Drop the cached badge so the next read reseeds it from Mongo, used after bulk deletes
+    public void invalidateUnreadCount(String username) {
+        try {
+            redisTemplate.delete(UNREAD_KEY_PREFIX + username);
+        } catch (Exception e) {
+            log.error("❌ Failed to invalidate unread notification count for {}: {}", username, e.getMessage());
+        }
+    }
+
+    // One updateMulti over the unread rows instead of a save per notification, also stamping the
+    // per-type expireAt the TTL index works from. The user's open sessions get a read-sync event so
+    // every tab clears its badge.
+    public long markAllAsRead(String userId, String username) {
+        Date readAt = new Date();
+        UpdateResult result = mongoTemplate.getCollection("notifications").updateMany(
+                Filters.and(Filters.eq("receiverUsername", username), Filters.eq("isRead", false)),
+                List.of(
+                        new Document("$set", new Document("isRead", true).append("readAt", readAt)),
+                        notificationRetentionPolicy.expiryStage()));
+        resetUnreadCount(username);
+
+        if (userId != null) {
+            try {
+                ObjectNode event = objectMapper.createObjectNode();
+                event.put("type", "NOTIFICATIONS_READ");
+                event.put("readAt", readAt.toInstant().toString());
+                event.put("updatedCount", result.getModifiedCount());
+                event.put("unreadCount", 0);
+                webSocketSessionManager.sendToUser(userId, objectMapper.writeValueAsString(event), "notifications:read");
+            } catch (IOException e) {
+                log.error("❌ Failed to send read-sync to {}: {}", username, e.getMessage());
+            }
+        }
+        return result.getModifiedCount();
+    }
+
+    public ResponseEntity<?> markNotificationsAsRead(String userId, String username) {
+        try {
+            long updatedCount = markAllAsRead(userId, username);
+            return ResponseEntity.ok(Map.of("message", "Notifications marked as read", "updatedCount", updatedCount));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error marking notifications as read: " + e.getMessage());
         }
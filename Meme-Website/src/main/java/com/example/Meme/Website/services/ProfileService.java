@@ -3,7 +3,6 @@ package com.example.Meme.Website.services;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -37,7 +36,6 @@ import com.example.Meme.Website.models.ActionType;
 import com.example.Meme.Website.models.FollowersModel;
 import com.example.Meme.Website.models.Meme;
 import com.example.Meme.Website.models.NotificationModel;
-import com.example.Meme.Website.models.UserInteraction;
 import com.example.Meme.Website.models.userModel;
 import com.example.Meme.Website.repository.userRepository;
 import com.example.Meme.Website.repository.memeRepository;
@@ -86,6 +84,21 @@ public class ProfileService {
     @Autowired
     private NotificationBatchBuffer notificationBatchBuffer;
 
+    @Autowired
+    private ChatRoomCache chatRoomCache;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private MemeCache memeCache;
+
+    @Autowired
+    private LiveCounterService liveCounterService;
+
+    @Autowired
+    private InteractionStateService interactionStateService;
+
     // public String getUserIdByUsername(String username) {
     // Optional<userModel> userOpt = userRepository.findByUsername(username);
     // if (userOpt.isEmpty()) {
@@ -96,19 +109,11 @@ public class ProfileService {
     // }
 
     public Map<String, String> getUserDetailsByUsername(String username) {
-        Optional<userModel> userOpt = userRepository.findByUsername(username);
-
-        if (userOpt.isEmpty()) {
-            return null; // You could also return an empty map if preferred
-        }
-
-        userModel user = userOpt.get();
-        Map<String, String> userDetails = new HashMap<>();
-        userDetails.put("userId", user.getUserId());
-        userDetails.put("username", user.getUsername());
-        userDetails.put("profilePictureUrl", user.getProfilePictureUrl());
+        return chatRoomCache.getUserByUsername(username).map(ChatRoomCache::toDetails).orElse(null);
+    }
 
-        return userDetails;
+    public Map<String, String> getUserDetailsById(String userId) {
+        return chatRoomCache.getUser(userId).map(ChatRoomCache::toDetails).orElse(null);
     }
 
     @Transactional
@@ -197,6 +202,7 @@ public class ProfileService {
 
         user.setUsername(newUsername);
         userRepository.save(user);
+        cacheInvalidationBus.userUpdated(userId, Map.of("username", newUsername));
 
         redisService.deleteToken("refresh_token", previousUsername);
 
@@ -311,6 +317,7 @@ public class ProfileService {
         NotificationModel notification = new NotificationModel();
         notification.setSenderUsername(follower.getUsername());
         notification.setReceiverUsername(target.getUsername());
+        notification.setReceiverUserId(target.getUserId());
         notification.setProfilePictureUrl(follower.getProfilePictureUrl());
         notification.setMemeId(null);
         notification.setType("FOLLOW");
@@ -379,36 +386,16 @@ public class ProfileService {
             return ResponseEntity.ok(new MemeFeedResponse(Collections.emptyList(), hasNext));
         }
 
-        Set<ObjectId> targetMemeIds = orderedMemeIds.stream()
-                .map(ObjectId::new)
-                .collect(Collectors.toSet());
-
-        List<Meme> unsortedMemes = memeRepository.findByIdIn(targetMemeIds);
-
-        Map<String, Meme> memeMap = unsortedMemes.stream()
-                .collect(Collectors.toMap(Meme::getId, m -> m));
+        Map<String, Meme> memeMap = memeCache.getAll(orderedMemeIds);
 
         List<Meme> sortedMemes = orderedMemeIds.stream()
                 .map(memeMap::get)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
-        Slice<UserInteraction> interactionsSlice = userInteractionRepository.findByUserIdAndMemeIdInAndTypeIn(
-                userId,
-                targetMemeIds.stream().map(ObjectId::toHexString).collect(Collectors.toSet()),
-                List.of(ActionType.LIKE, ActionType.SAVE),
-                PageRequest.of(0, targetMemeIds.size()));
-
-        List<UserInteraction> interactions = interactionsSlice.getContent();
-
-        Map<String, Set<ActionType>> interactionMap = new HashMap<>();
-        for (UserInteraction interaction : interactions) {
-            interactionMap
-                    .computeIfAbsent(interaction.getMemeId(), k -> new HashSet<>())
-                    .add(interaction.getType());
-        }
+        Map<String, Set<ActionType>> interactionMap = interactionStateService.statesFor(userId, orderedMemeIds);
 
-        List<MemeDto> memeDtos = sortedMemes.stream().map(meme -> {
+        List<MemeDto> memeDtos = liveCounterService.withLiveCounts(sortedMemes).stream().map(meme -> {
             Set<ActionType> actions = interactionMap.getOrDefault(meme.getId(), Set.of());
             boolean liked = actions.contains(ActionType.LIKE);
             boolean saved = actions.contains(ActionType.SAVE);
@@ -157,9 +157,13 @@ public class RedisService {
         return String.format("more_memes:%s:%s:%d:%d", userId, memeId, skip, limit);
     }
 
-    public void pushMemeToCleanupQueue(String memeId) {
+    public void pushMemeToCleanupQueue(String memeId, String mediaUrl) {
         try {
             String redisListKey = "memes:pending_cleanup";
+            // The meme document is gone by the time cleanup runs, keep its media url for the S3 stage
+            if (mediaUrl != null) {
+                redisTemplate.opsForHash().put(redisListKey + ":media", memeId, mediaUrl);
+            }
             redisTemplate.opsForList().rightPush(redisListKey, memeId);
             log.info("🧹 Meme '{}' pushed to cleanup queue '{}'", memeId, redisListKey);
         } catch (Exception e) {
@@ -1,33 +1,70 @@
 package com.example.Meme.Website.services;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
 import com.example.Meme.Website.models.Meme;
 import com.example.Meme.Website.repository.memeRepository;
+import com.example.Meme.Website.services.CacheInvalidationBus.InvalidationEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import lombok.extern.slf4j.Slf4j;
+
+// Trending memes are kept as a sorted set of ids (rank order) plus a hash of meme JSON by id, instead
+// of one JSON list, so a deleted or edited meme is removed or patched in place (ZREM/HDEL/HSET)
+// rather than by rewriting the whole list.
 @Service
-public class TrendingCacheService {
+@Slf4j
+public class TrendingCacheService implements CacheInvalidationListener {
 
     private static final long TRENDING_TTL_MINUTES = 1;
-    private static final String TRENDING_KEY = "trending:global";
-    
+    private static final String TRENDING_IDS_KEY = "trending:global:ids";
+    private static final String TRENDING_MEMES_KEY = "trending:global:memes";
+
+    // Meme fields that mirror the uploader's profile
+    private static final Map<String, String> USER_FIELDS = Map.of(
+            "profilePictureUrl", "profilePictureUrl",
+            "username", "uploader");
+
     @Autowired
     private memeRepository memeRepository;
     @Autowired
-    private RedisService redisService;
+    private RedisTemplate<String, String> redisTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
 
 
     public List<Meme> getTrendingMemes(){
-        List<Meme> cached = redisService.getList(TRENDING_KEY, Meme.class);
-        if(!cached.isEmpty()){
-            return cached;
+        try {
+            Set<String> ids = redisTemplate.opsForZSet().range(TRENDING_IDS_KEY, 0, -1);
+            if (ids != null && !ids.isEmpty()) {
+                List<Meme> cached = new ArrayList<>(ids.size());
+                List<Object> json = redisTemplate.opsForHash().multiGet(TRENDING_MEMES_KEY, new ArrayList<>(ids));
+                for (Object value : json) {
+                    if (value != null) {
+                        cached.add(objectMapper.readValue(value.toString(), Meme.class));
+                    }
+                }
+                return cached;
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to read trending memes from Redis: {}", e.getMessage());
         }
 
         return refreshTrendingMemes();
@@ -40,7 +77,83 @@ public class TrendingCacheService {
             PageRequest.of(0, 20, Sort.by(Sort.Order.desc("likecount"), Sort.Order.desc("viewCount")))
         ).getContent();
 
-        redisService.set(TRENDING_KEY, trending, TRENDING_TTL_MINUTES, TimeUnit.MINUTES);
+        try {
+            Map<String, String> memes = new LinkedHashMap<>();
+            for (Meme meme : trending) {
+                memes.put(meme.getId(), objectMapper.writeValueAsString(meme));
+            }
+
+            // Swapped in one MULTI so readers never see a half-written ranking
+            redisTemplate.execute(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.multi();
+                    ops.delete(List.of(TRENDING_IDS_KEY, TRENDING_MEMES_KEY));
+                    if (!memes.isEmpty()) {
+                        int rank = 0;
+                        for (String memeId : memes.keySet()) {
+                            ops.opsForZSet().add(TRENDING_IDS_KEY, memeId, rank++);
+                        }
+                        ops.opsForHash().putAll(TRENDING_MEMES_KEY, memes);
+                        ops.expire(TRENDING_IDS_KEY, TRENDING_TTL_MINUTES, TimeUnit.MINUTES);
+                        ops.expire(TRENDING_MEMES_KEY, TRENDING_TTL_MINUTES, TimeUnit.MINUTES);
+                    }
+                    return ops.exec();
+                }
+            });
+        } catch (Exception e) {
+            log.error("❌ Failed to cache trending memes: {}", e.getMessage());
+        }
         return trending;
     }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event, boolean originNode) {
+        // Shared Redis state, the publishing node applies it
+        if (!originNode) return;
+
+        if (CacheInvalidationBus.ENTITY_MEME.equals(event.getEntity())) {
+            if (CacheInvalidationBus.ACTION_DELETED.equals(event.getAction())) {
+                redisTemplate.opsForZSet().remove(TRENDING_IDS_KEY, event.getId());
+                redisTemplate.opsForHash().delete(TRENDING_MEMES_KEY, event.getId());
+            } else if (CacheInvalidationBus.ACTION_UPDATED.equals(event.getAction())
+                    && event.getFields() != null && !event.getFields().isEmpty()) {
+                patch(event.getId(), event.getFields());
+            }
+        } else if (CacheInvalidationBus.ENTITY_USER.equals(event.getEntity()) && event.getFields() != null) {
+            Map<String, Object> memeFields = new HashMap<>();
+            USER_FIELDS.forEach((userField, memeField) -> {
+                if (event.getFields().containsKey(userField)) {
+                    memeFields.put(memeField, event.getFields().get(userField));
+                }
+            });
+            if (memeFields.isEmpty()) return;
+
+            // At most one page of trending memes, checking each uploader is cheap
+            redisTemplate.opsForHash().entries(TRENDING_MEMES_KEY).forEach((memeId, json) -> {
+                try {
+                    if (event.getId().equals(objectMapper.readTree(json.toString()).path("userId").asText(null))) {
+                        patch(memeId.toString(), memeFields);
+                    }
+                } catch (Exception e) {
+                    log.error("❌ Failed to read trending meme {}: {}", memeId, e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void patch(String memeId, Map<String, Object> fields) {
+        Object json = redisTemplate.opsForHash().get(TRENDING_MEMES_KEY, memeId);
+        if (json == null) return;
+
+        try {
+            ObjectNode node = (ObjectNode) objectMapper.readTree(json.toString());
+            fields.forEach((field, value) -> node.set(field, objectMapper.valueToTree(value)));
+            redisTemplate.opsForHash().put(TRENDING_MEMES_KEY, memeId, objectMapper.writeValueAsString(node));
+        } catch (Exception e) {
+            log.error("❌ Failed to patch trending meme {}: {}", memeId, e.getMessage());
+        }
+    }
 }
@@ -1,8 +1,10 @@
 package com.example.Meme.Website.services;
 
+import  java.util.List;
 import  java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -17,6 +19,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private userRepository userRepository;
 
+    // UserIds allowed to read the /health metrics endpoints, usernames can be changed and re-claimed
+    @Value("#{'${security.admin-user-ids:}'.split(',')}")
+    private List<String> adminUserIds;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         Optional<userModel> user = userRepository.findByUsername(username);
@@ -25,7 +31,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new UsernameNotFoundException("user not found");
         }
         
-        return new UserPrincipal(user.orElseThrow(() -> new UsernameNotFoundException("User not found")));
+        userModel found = user.orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return new UserPrincipal(found, adminUserIds.contains(found.getUserId()));
 
     }
     
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -22,10 +23,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.socket.TextMessage;
-import org.springframework.web.socket.WebSocketSession;
 
-import com.example.Meme.Website.DBO.MemeInteractionDBO;
+import com.example.Meme.Website.WebSockets.RoomCounterAggregator;
 import com.example.Meme.Website.WebSockets.WebSocketSessionManager;
 import com.example.Meme.Website.batch.CommentBatchBuffer;
 import com.example.Meme.Website.batch.InteractionBatchBuffer;
@@ -49,6 +48,7 @@ import com.example.Meme.Website.repository.followersRepository;
 import com.example.Meme.Website.repository.memeRepository;
 import com.example.Meme.Website.repository.userInteractionsRepository;
 import com.example.Meme.Website.repository.userRepository;
+import com.example.Meme.Website.services.CacheInvalidationBus.InvalidationEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -56,7 +56,7 @@ import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
-public class memeService {
+public class memeService implements CacheInvalidationListener {
 
     @Autowired
     private userRepository userRepository;
@@ -86,11 +86,24 @@ public class memeService {
     private NotificationBatchBuffer notificationBatchBuffer;
     @Autowired
     private CommentBatchBuffer commentBatchBuffer;
+    @Autowired
+    private WebSocketSessionManager webSocketSessionManager;
+    @Autowired
+    private RoomCounterAggregator roomCounterAggregator;
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    @Autowired
+    private MemeCache memeCache;
+    @Autowired
+    private LiveCounterService liveCounterService;
+    @Autowired
+    private InteractionStateService interactionStateService;
 
-    private final Map<String, Double> scoreCache = new HashMap<>();
+    // Written from request threads and evicted from the invalidation bus
+    private final Map<String, Double> scoreCache = new ConcurrentHashMap<>();
 
     public MemeDto getMemeById(String memeId, String userId, boolean excludeComments) {
-        Optional<Meme> optionalMeme = memeRepository.findById(memeId);
+        Optional<Meme> optionalMeme = memeCache.get(memeId);
         if (optionalMeme.isEmpty()) {
             return null;
         }
@@ -101,23 +114,13 @@ public class memeService {
         boolean saved = false;
 
         if (userId != null) {
-            List<MemeInteractionDBO> interactions = userInteractionRepository
-                    .findUserInteractionMemeIdsByType(
-                            userId,
-                            Set.of(memeId),
-                            List.of(ActionType.LIKE, ActionType.SAVE),
-                            PageRequest.of(0, 2))
-                    .getContent();
-
-            for (MemeInteractionDBO interaction : interactions) {
-                if (interaction.getType() == ActionType.LIKE)
-                    liked = true;
-                if (interaction.getType() == ActionType.SAVE)
-                    saved = true;
-            }
+            Set<ActionType> actions = interactionStateService.statesFor(userId, List.of(memeId))
+                    .getOrDefault(memeId, Set.of());
+            liked = actions.contains(ActionType.LIKE);
+            saved = actions.contains(ActionType.SAVE);
         }
 
-        return new MemeDto(meme, liked, saved);
+        return new MemeDto(liveCounterService.withLiveCounts(meme), liked, saved);
     }
 
     @Transactional
@@ -137,7 +140,7 @@ public class memeService {
     @Transactional
     public ResponseEntity<?> likedMemes(String username, String memeId, boolean like) {
         Optional<userModel> optionalUser = userRepository.findByUsername(username);
-        Optional<Meme> optionalMeme = memeRepository.findById(memeId);
+        Optional<Meme> optionalMeme = memeCache.get(memeId);
 
         if (optionalUser.isEmpty() || optionalMeme.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User or meme not found");
@@ -146,8 +149,8 @@ public class memeService {
         userModel user = optionalUser.get();
         Meme meme = optionalMeme.get();
 
-        boolean alreadyLiked = userInteractionRepository.existsByUserIdAndMemeIdAndType(
-                user.getUserId(), memeId, ActionType.LIKE);
+        // Includes likes still in the buffer, a double click cannot like twice before the flush
+        boolean alreadyLiked = interactionStateService.has(user.getUserId(), memeId, ActionType.LIKE);
         String message;
 
         UserInteraction interaction = new UserInteraction(
@@ -160,12 +163,14 @@ public class memeService {
         if (like) {
             if (!alreadyLiked) {
                 buffer.bufferInsert(interaction);
+                roomCounterAggregator.record(memeId, RoomCounterAggregator.Counter.LIKES, 1);
                 message = "Meme liked successfully";
 
                 if (!user.getUsername().equals(meme.getUploader())) {
                     NotificationModel notification = new NotificationModel();
                     notification.setSenderUsername(user.getUsername());
                     notification.setReceiverUsername(meme.getUploader());
+                    notification.setReceiverUserId(meme.getUserId());
                     notification.setProfilePictureUrl(user.getProfilePictureUrl());
                     notification.setMemeId(memeId);
                     notification.setType("LIKE");
@@ -182,6 +187,7 @@ public class memeService {
         } else {
             if (alreadyLiked) {
                 buffer.bufferDelete(interaction);
+                roomCounterAggregator.record(memeId, RoomCounterAggregator.Counter.LIKES, -1);
                 message = "Meme unliked successfully";
             } else {
                 message = "Meme was not previously liked";
@@ -190,7 +196,8 @@ public class memeService {
 
         ObjectNode response = new ObjectMapper().createObjectNode();
         response.put("message", message);
-        response.put("likeCount", meme.getLikecount());
+        // Includes this click and everything else still buffered
+        response.put("likeCount", liveCounterService.withLiveCounts(meme).getLikecount());
 
         return ResponseEntity.ok(response);
     }
@@ -198,7 +205,7 @@ public class memeService {
     @Transactional
     public ResponseEntity<?> saveMeme(String username, String memeId, boolean save) {
         Optional<userModel> optionalUser = userRepository.findByUsername(username);
-        Optional<Meme> optionalMeme = memeRepository.findById(memeId);
+        Optional<Meme> optionalMeme = memeCache.get(memeId);
 
         if (optionalUser.isEmpty()) {
             return ResponseEntity.status(404).body("User or meme not found");
@@ -207,8 +214,7 @@ public class memeService {
         userModel user = optionalUser.get();
         Meme meme = optionalMeme.get();
 
-        boolean alreadySaved = userInteractionRepository.existsByUserIdAndMemeIdAndType(
-                user.getUserId(), memeId, ActionType.SAVE);
+        boolean alreadySaved = interactionStateService.has(user.getUserId(), memeId, ActionType.SAVE);
 
         String message;
 
@@ -222,12 +228,14 @@ public class memeService {
         if (save) {
             if (!alreadySaved) {
                 buffer.bufferInsert(interaction);
+                roomCounterAggregator.record(memeId, RoomCounterAggregator.Counter.SAVES, 1);
                 message = "Meme saved successfully";
 
                 if (!user.getUsername().equals(meme.getUploader())) {
                     NotificationModel notification = new NotificationModel();
                     notification.setSenderUsername(user.getUsername());
                     notification.setReceiverUsername(meme.getUploader());
+                    notification.setReceiverUserId(meme.getUserId());
                     notification.setProfilePictureUrl(user.getProfilePictureUrl());
                     notification.setMemeId(memeId);
                     notification.setType("SAVE");
@@ -243,6 +251,7 @@ public class memeService {
         } else {
             if (alreadySaved) {
                 buffer.bufferDelete(interaction);
+                roomCounterAggregator.record(memeId, RoomCounterAggregator.Counter.SAVES, -1);
                 message = "Meme unsaved successfully";
             } else {
                 message = "Meme was not previously saved";
@@ -251,14 +260,14 @@ public class memeService {
 
         ObjectNode response = new ObjectMapper().createObjectNode();
         response.put("message", message);
-        response.put("saveCount", meme.getSaveCount());
+        response.put("saveCount", liveCounterService.withLiveCounts(meme).getSaveCount());
 
         return ResponseEntity.ok(response);
     }
 
     @Transactional
     public Comments addCommentsToMeme(Comments comment) throws IOException {
-        Optional<Meme> optionalMeme = memeRepository.findById(comment.getMemeId());
+        Optional<Meme> optionalMeme = memeCache.get(comment.getMemeId());
         if (optionalMeme.isEmpty()) {
             throw new RuntimeException("Meme not found");
         }
@@ -266,19 +275,19 @@ public class memeService {
         Meme meme = optionalMeme.get();
 
         commentBatchBuffer.bufferComment(comment);
+        roomCounterAggregator.record(comment.getMemeId(), RoomCounterAggregator.Counter.COMMENTS, 1);
 
         if (!comment.getUsername().equals(meme.getUploader())) {
-            NotificationModel notification = new NotificationModel(
-                    null,
-                    comment.getUsername(),
-                    meme.getUploader(),
-                    comment.getProfilePictureUrl(),
-                    "COMMENT",
-                    comment.getUsername() + " commented on your meme: " + meme.getCaption(),
-                    false,
-                    meme.getId(),
-                    new Date(),
-                    null);
+            NotificationModel notification = new NotificationModel();
+            notification.setSenderUsername(comment.getUsername());
+            notification.setReceiverUsername(meme.getUploader());
+            notification.setReceiverUserId(meme.getUserId());
+            notification.setProfilePictureUrl(comment.getProfilePictureUrl());
+            notification.setType("COMMENT");
+            notification.setMessage(comment.getUsername() + " commented on your meme: " + meme.getCaption());
+            notification.setRead(false);
+            notification.setMemeId(meme.getId());
+            notification.setCreatedAt(new Date());
 
             notificationBatchBuffer.buffer(notification);
         }
@@ -286,12 +295,8 @@ public class memeService {
         ObjectNode messageNode = objectMapper.valueToTree(comment);
         messageNode.put("type", "COMMENT");
         String payload = objectMapper.writeValueAsString(messageNode);
-        TextMessage message = new TextMessage(payload);
 
-        WebSocketSession commentorSession = WebSocketSessionManager.getSession(comment.getUserId());
-        if (commentorSession != null && commentorSession.isOpen()) {
-            commentorSession.sendMessage(message);
-        }
+        webSocketSessionManager.sendToUser(comment.getUserId(), payload);
 
         return comment;
     }
@@ -307,10 +312,10 @@ public class memeService {
                 .map(doc -> doc.getMemeId())
                 .collect(Collectors.toList());
 
-        List<Meme> memes = memeRepository.findAllById(memeIds);
+        List<Meme> memes = memeCache.getAllAsList(memeIds);
 
         Map<String, Object> response = new HashMap<>();
-        response.put("memes", memes);
+        response.put("memes", liveCounterService.withLiveCounts(memes));
         response.put("hasNext", actionSlice.hasNext());
         response.put("currentPage", page);
 
@@ -334,7 +339,7 @@ public class memeService {
 
     @Transactional(rollbackFor = Exception.class)
     public ResponseEntity<?> deleteMeme(String memeId) throws Exception {
-        Optional<Meme> memeOptional = memeRepository.findById(memeId);
+        Optional<Meme> memeOptional = memeCache.get(memeId);
         if (memeOptional.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "Meme not found"));
@@ -343,9 +348,9 @@ public class memeService {
         Meme meme = memeOptional.get();
 
         try {
+            // Comments, interactions and media are queued for cleanup once the delete is flushed
             memeBuffer.bufferMemeDelete(meme);
-            redisService.pushMemeToCleanupQueue(memeId);
-            updateRedisCache(memeId);
+            cacheInvalidationBus.memeDeleted(memeId);
 
             return ResponseEntity.ok(Map.of("message", "Meme deleted. Cleanup scheduled."));
         } catch (Exception e) {
@@ -354,13 +359,16 @@ public class memeService {
         }
     }
 
-    private void updateRedisCache(String memeId) {
-        String redisKey = "AllMemes";
-        List<Meme> cachedMemes = redisService.getList(redisKey, Meme.class);
+    @Override
+    public void onInvalidation(InvalidationEvent event, boolean originNode) {
+        if (!CacheInvalidationBus.ENTITY_MEME.equals(event.getEntity())) return;
 
-        if (cachedMemes != null && cachedMemes.removeIf(m -> m.getId().equals(memeId))) {
-            redisService.set(redisKey, cachedMemes, 10, TimeUnit.MINUTES);
-            log.info("🧠 Redis cache updated for meme deletion");
+        if (CacheInvalidationBus.ACTION_DELETED.equals(event.getAction())) {
+            scoreCache.remove(event.getId());
+            // Nothing writes AllMemes any more, dropping a leftover copy beats rewriting it per delete
+            if (originNode) {
+                redisService.deleteKey("AllMemes");
+            }
         }
     }
 
@@ -440,6 +448,8 @@ public class memeService {
             }
         }
 
+        memeCache.putAll(candidates);
+
         LocalDateTime recentThreshold = LocalDateTime.now().minusMinutes(30);
 
         Set<String> trendingIds = trendingMemes.stream()
@@ -505,21 +515,9 @@ public class memeService {
         seenIds.addAll(newSeen);
         redisService.set(redisKey, new ArrayList<>(seenIds), 1, TimeUnit.MINUTES);
 
-        Pageable pageable = PageRequest.of(0, limit);
-        Slice<MemeInteractionDBO> interactionsSlice = userInteractionRepository
-                .findUserInteractionMemeIdsByType(userId, new HashSet<>(newSeen),
-                        List.of(ActionType.LIKE, ActionType.SAVE), pageable);
-
-        Map<String, Set<ActionType>> interactionMap = new HashMap<>();
-        for (MemeInteractionDBO interaction : interactionsSlice) {
-            if (interaction != null && interaction.getMemeId() != null && interaction.getType() != null) {
-                interactionMap
-                        .computeIfAbsent(interaction.getMemeId(), k -> new HashSet<>())
-                        .add(interaction.getType());
-            }
-        }
+        Map<String, Set<ActionType>> interactionMap = interactionStateService.statesFor(userId, newSeen);
 
-        List<MemeDto> memeDtos = pageMemes.stream()
+        List<MemeDto> memeDtos = liveCounterService.withLiveCounts(pageMemes).stream()
                 .map(meme -> {
                     Set<ActionType> actions = interactionMap.getOrDefault(meme.getId(), Set.of());
                     boolean liked = actions.contains(ActionType.LIKE);
@@ -532,7 +530,7 @@ public class memeService {
     }
 
     public List<Meme> findRelatedMemes(String memeId, String userId, double lastScore, String lastId, int limit) {
-        Meme currentMeme = mongoTemplate.findById(memeId, Meme.class);
+        Meme currentMeme = memeCache.get(memeId).orElse(null);
         if (currentMeme == null)
             return List.of();
 
@@ -540,12 +538,14 @@ public class memeService {
         List<Meme> candidates = buildCandidatesStream(currentMeme, userId,
                 intracted);
 
+        memeCache.putAll(candidates);
+
         List<ScoreMeme> scored = scoreAndRank(candidates, currentMeme, userId);
         List<ScoreMeme> diversified = diversify(scored);
         List<ScoreMeme> paginated = paginateByCursor(diversified, lastScore, lastId,
                 limit);
 
-        return paginated.stream().map(sm -> sm.getMeme()).toList();
+        return liveCounterService.withLiveCounts(paginated.stream().map(sm -> sm.getMeme()).toList());
     }
 
     private List<ScoreMeme> diversify(List<ScoreMeme> memes) {
@@ -760,25 +760,9 @@ public class memeService {
         alreadySentMemeIds.addAll(resultIds);
         redisService.set(redisKey, alreadySentMemeIds, 1, TimeUnit.HOURS);
 
-        Pageable pageable = PageRequest.of(0, limit);
-
-        Slice<MemeInteractionDBO> likedOrSavedMemeIdsSlice = userInteractionRepository
-                .findUserInteractionMemeIdsByType(
-                        userId,
-                        resultIds,
-                        List.of(ActionType.LIKE, ActionType.SAVE),
-                        pageable);
-
-        List<MemeInteractionDBO> interactions = likedOrSavedMemeIdsSlice.getContent();
-
-        Map<String, Set<ActionType>> interactionMap = new HashMap<>();
-        for (MemeInteractionDBO interaction : interactions) {
-            interactionMap
-                    .computeIfAbsent(interaction.getMemeId(), k -> new HashSet<>())
-                    .add(interaction.getType());
-        }
+        Map<String, Set<ActionType>> interactionMap = interactionStateService.statesFor(userId, resultIds);
 
-        List<MemeDto> memeDtos = pageResult.stream().map(meme -> {
+        List<MemeDto> memeDtos = liveCounterService.withLiveCounts(pageResult).stream().map(meme -> {
             Set<ActionType> actions = interactionMap.getOrDefault(meme.getId(), Set.of());
             boolean liked = actions.contains(ActionType.LIKE);
             boolean saved = actions.contains(ActionType.SAVE);
@@ -0,0 +1,84 @@
+package com.example.Meme.Website.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+
+import com.example.Meme.Website.WebSockets.FrameEncoder;
+import com.example.Meme.Website.dto.ChatMessageEvent;
+import com.example.Meme.Website.dto.ChatMessageResponse;
+import com.example.Meme.Website.models.MessageType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Bytes allocated per broadcast to a room of RECIPIENTS sessions: the old per-recipient
+// convertValue + serialize path against encoding once and sharing the frame.
+// Tagged "benchmark", so it is excluded from the unit suite; run with: mvn test -Pbenchmark
+@Tag("benchmark")
+class BroadcastAllocationBenchmarkTest {
+
+    private static final int RECIPIENTS = 200;
+    private static final int WARMUP = 2_000;
+    private static final int ROUNDS = 2_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FrameEncoder frameEncoder = new FrameEncoder(objectMapper);
+    private final List<TextMessage> sink = new ArrayList<>(RECIPIENTS);
+
+    private final ChatMessageResponse response = new ChatMessageResponse(
+            "6650c0ffee", "room-1", "hello there, this is a chat message", MessageType.TEXT, null,
+            "2025-01-01T00:00:00Z", false, "user-1", "alice", "https://cdn.example.com/alice.png");
+
+    @Test
+    void bytesAllocatedPerBroadcast() throws Exception {
+        long perRecipient = measure(this::perRecipientBroadcast);
+        long shared = measure(this::sharedBroadcast);
+
+        System.out.printf("📊 bytes/broadcast to %d recipients: per-recipient=%d shared=%d%n",
+                RECIPIENTS, perRecipient, shared);
+    }
+
+    private void perRecipientBroadcast() throws Exception {
+        sink.clear();
+        for (int i = 0; i < RECIPIENTS; i++) {
+            Map<String, Object> payload = objectMapper.convertValue(response,
+                    new TypeReference<Map<String, Object>>() {
+                    });
+            payload.put("type", "CHAT");
+            sink.add(new TextMessage(objectMapper.writeValueAsString(payload)));
+        }
+    }
+
+    private void sharedBroadcast() throws Exception {
+        sink.clear();
+        TextMessage frame = frameEncoder.encode(new ChatMessageEvent("CHAT", response));
+        for (int i = 0; i < RECIPIENTS; i++) {
+            sink.add(frame);
+        }
+    }
+
+    private long measure(Broadcast broadcast) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            broadcast.run();
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ROUNDS; i++) {
+            broadcast.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ROUNDS;
+    }
+
+    @FunctionalInterface
+    private interface Broadcast {
+        void run() throws Exception;
+    }
+}
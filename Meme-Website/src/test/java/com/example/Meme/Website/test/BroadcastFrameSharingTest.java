@@ -0,0 +1,76 @@
+package com.example.Meme.Website.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.example.Meme.Website.WebSockets.OutboundDispatcher;
+import com.example.Meme.Website.WebSockets.WebSocketClusterRouter;
+import com.example.Meme.Website.WebSockets.WebSocketSessionManager;
+
+// A broadcast is encoded once and the same frame instance is queued for every viewer.
+class BroadcastFrameSharingTest {
+
+    private static final int VIEWERS = 50;
+
+    private final OutboundDispatcher outboundDispatcher = mock(OutboundDispatcher.class);
+    private final WebSocketClusterRouter clusterRouter = mock(WebSocketClusterRouter.class);
+    private final WebSocketSessionManager manager = new WebSocketSessionManager();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(manager, "outboundDispatcher", outboundDispatcher);
+        ReflectionTestUtils.setField(manager, "clusterRouter", clusterRouter);
+
+        for (int i = 0; i < VIEWERS; i++) {
+            WebSocketSession session = mock(WebSocketSession.class);
+            when(session.getId()).thenReturn("s" + i);
+            when(session.isOpen()).thenReturn(true);
+            // No userId attribute, so joining skips the view count bookkeeping
+            when(session.getAttributes()).thenReturn(new HashMap<>());
+            manager.registerPostSession("meme-1", session);
+        }
+    }
+
+    @Test
+    void everyViewerGetsTheSameFrameInstance() {
+        TextMessage frame = new TextMessage("{\"type\":\"COUNTERS\",\"memeId\":\"meme-1\"}");
+        manager.broadcastToPost("meme-1", frame);
+
+        List<WebSocketMessage<?>> queued = captureSends();
+        assertEquals(VIEWERS, queued.size());
+        queued.forEach(message -> assertSame(frame, message));
+        verify(clusterRouter).publishToRoom("meme-1", frame.getPayload());
+    }
+
+    @Test
+    void stringPayloadIsEncodedOnceForAllViewers() {
+        manager.broadcastToPost("meme-1", "{\"type\":\"LIKE\"}");
+
+        List<WebSocketMessage<?>> queued = captureSends();
+        assertEquals(VIEWERS, queued.size());
+        queued.forEach(message -> assertSame(queued.get(0), message));
+    }
+
+    private List<WebSocketMessage<?>> captureSends() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<WebSocketMessage<?>> frames = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(outboundDispatcher, times(VIEWERS)).send(any(WebSocketSession.class), frames.capture());
+        return frames.getAllValues();
+    }
+}
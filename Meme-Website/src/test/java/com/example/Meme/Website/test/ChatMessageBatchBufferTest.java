@@ -0,0 +1,62 @@
+package com.example.Meme.Website.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.Meme.Website.batch.ChatMessageBatchBuffer;
+import com.example.Meme.Website.batch.ChatMessageBatchBuffer.PendingChatMessage;
+import com.example.Meme.Website.models.ChatMessage;
+
+class ChatMessageBatchBufferTest {
+
+    private final ChatMessageBatchBuffer buffer = new ChatMessageBatchBuffer();
+
+    private static ChatMessage message(String id, String text) {
+        ChatMessage message = new ChatMessage();
+        message.setId(id);
+        message.setChatRoomId("room");
+        message.setMessageText(text);
+        message.setTimestamp(new Date());
+        return message;
+    }
+
+    @Test
+    void editOfBufferedMessageIsWrittenAfterTheOriginal() {
+        buffer.bufferMessage(message("m1", "hello"), "1-0");
+
+        assertTrue(buffer.updatePending("m1", msg -> msg.setMessageText("edited")));
+
+        List<PendingChatMessage> batch = buffer.drainMessages(10);
+        assertEquals(List.of("hello", "edited"), batch.stream().map(p -> p.getMessage().getMessageText()).toList());
+        assertEquals("edited", buffer.getPending("m1").getMessageText());
+    }
+
+    @Test
+    void editStaysPendingWhenTheOriginalIsPersistedFirst() {
+        buffer.bufferMessage(message("m1", "hello"), "1-0");
+        List<PendingChatMessage> first = buffer.drainMessages(10);
+
+        buffer.updatePending("m1", msg -> msg.setDeleted(true));
+        buffer.markPersisted(first);
+
+        assertTrue(buffer.isPending("m1"));
+        List<PendingChatMessage> second = buffer.drainMessages(10);
+        assertTrue(second.get(0).getMessage().isDeleted());
+        buffer.markPersisted(second);
+        assertFalse(buffer.isPending("m1"));
+    }
+
+    @Test
+    void persistedMessageIsLeftToMongo() {
+        buffer.bufferMessage(message("m1", "hello"), "1-0");
+        buffer.markPersisted(buffer.drainMessages(10));
+
+        assertFalse(buffer.updatePending("m1", msg -> msg.setMessageText("edited")));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Meme.Website.test;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+
+import com.example.Meme.Website.WebSockets.InboundMessage;
+import com.example.Meme.Website.WebSockets.InboundMessageDecoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Decode throughput of the streaming decoder against the previous readTree + json.get() path.
+// Tagged "benchmark", so it is excluded from the unit suite; run with: mvn test -Pbenchmark
+@Tag("benchmark")
+class InboundMessageDecoderBenchmarkTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int ROUNDS = 200_000;
+
+    private static final TextMessage CHAT_FRAME = new TextMessage(
+            "{\"type\":\"CHAT\",\"chatRoomId\":\"room-1\",\"message\":\"hello there\",\"messageType\":\"TEXT\","
+                    + "\"toUsername\":\"bob\",\"meta\":{\"client\":\"web\",\"tags\":[1,2,3]}}");
+
+    private final InboundMessageDecoder decoder = new InboundMessageDecoder();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void decodeThroughput() throws Exception {
+        long tree = opsPerSecond(() -> {
+            JsonNode json = objectMapper.readTree(CHAT_FRAME.getPayload());
+            return json.get("type").asText().length() + json.get("chatRoomId").asText().length();
+        });
+        long streaming = opsPerSecond(() -> {
+            InboundMessage.Chat chat = (InboundMessage.Chat) decoder.decode(CHAT_FRAME);
+            return chat.type().ordinal() + chat.chatRoomId().length();
+        });
+
+        System.out.printf("📊 decode ops/s: readTree=%d streaming=%d%n", tree, streaming);
+    }
+
+    private long opsPerSecond(Decode decode) throws Exception {
+        long blackhole = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            blackhole += decode.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            blackhole += decode.run();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (blackhole == 42) {
+            System.out.println(blackhole);
+        }
+        return ROUNDS * 1_000_000_000L / elapsed;
+    }
+
+    @FunctionalInterface
+    private interface Decode {
+        int run() throws Exception;
+    }
+}
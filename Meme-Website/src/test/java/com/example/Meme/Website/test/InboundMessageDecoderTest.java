@@ -0,0 +1,76 @@
+package com.example.Meme.Website.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+
+import com.example.Meme.Website.Exceptions.CustomExceptions.InvalidFrameException;
+import com.example.Meme.Website.WebSockets.InboundMessage;
+import com.example.Meme.Website.WebSockets.InboundMessageDecoder;
+
+class InboundMessageDecoderTest {
+
+    private final InboundMessageDecoder decoder = new InboundMessageDecoder();
+
+    @Test
+    void textAndBinaryFramesDecodeToTheSameMessage() {
+        List<String> frames = List.of(
+                "{\"type\":\"CHAT\",\"chatRoomId\":\"room-1\",\"message\":\"héllo ✓\",\"toUsername\":\"bob\","
+                        + "\"meta\":{\"client\":\"web\",\"tags\":[1,2,3]}}",
+                "{\"type\":\"LIKE\",\"memeId\":\"m1\",\"action\":\"like\"}",
+                "{\"type\":\"COMMENT\",\"memeId\":\"m1\",\"text\":\"nice\",\"profilePictureUrl\":null}",
+                "{\"type\":\"FOLLOW\",\"followerUsername\":\"a\",\"followingUsername\":\"b\",\"isFollowing\":true}",
+                "{\"isTyping\":true,\"type\":\"TYPING_INDICATOR\",\"chatRoomId\":\"r\"}");
+
+        for (String frame : frames) {
+            byte[] bytes = frame.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+            InboundMessage fromText = decoder.decode(new TextMessage(frame));
+            assertEquals(fromText, decoder.decode(new BinaryMessage(bytes)), frame);
+            assertEquals(fromText, decoder.decode(new BinaryMessage(direct)), frame);
+        }
+    }
+
+    @Test
+    void decodesFieldsIntoTypedRecords() {
+        assertEquals(new InboundMessage.Chat("room-1", "hi", "TEXT", null, null, "bob"),
+                decoder.decode(new TextMessage(
+                        "{\"type\":\"CHAT\",\"chatRoomId\":\"room-1\",\"message\":\"hi\",\"toUsername\":\"bob\"}")));
+        assertEquals(new InboundMessage.Follow("a", "b", false),
+                decoder.decode(new TextMessage(
+                        "{\"type\":\"FOLLOW\",\"followerUsername\":\"a\",\"followingUsername\":\"b\"}")));
+        assertEquals(new InboundMessage.TypingIndicator("r", true),
+                decoder.decode(new TextMessage("{\"isTyping\":true,\"type\":\"TYPING_INDICATOR\",\"chatRoomId\":\"r\"}")));
+        // Nested values are skipped, not mistaken for top-level fields
+        assertEquals(new InboundMessage.JoinPost("p1"),
+                decoder.decode(new TextMessage("{\"extra\":{\"postId\":\"nested\"},\"type\":\"JOIN_POST\",\"postId\":\"p1\"}")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "{\"type\":\"LIKE\"",
+            "[1,2]",
+            "\"JOIN_POST\"",
+            "{\"type\":\"NOPE\"}",
+            "{\"type\":\"join_post\",\"postId\":\"p1\"}",
+            "{\"postId\":\"p1\"}",
+            "{\"type\":\"JOIN_POST\"}",
+            "{\"type\":\"LIKE\",\"memeId\":\"m1\"}",
+            "{\"type\":null,\"postId\":\"p1\"}",
+            "{\"type\":\"JOIN_POST\",\"postId\":\"p1\"} trailing"
+    })
+    void rejectsMalformedFrames(String frame) {
+        assertThrows(InvalidFrameException.class, () -> decoder.decode(new TextMessage(frame)));
+    }
+}
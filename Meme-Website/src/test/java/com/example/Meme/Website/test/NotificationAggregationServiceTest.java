@@ -0,0 +1,119 @@
+package com.example.Meme.Website.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.Meme.Website.models.NotificationModel;
+import com.example.Meme.Website.services.NotificationAggregationService;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+
+class NotificationAggregationServiceTest {
+
+    private final NotificationAggregationService service = new NotificationAggregationService();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "aggregatedTypes", Set.of("LIKE", "SAVE", "FOLLOW"));
+        ReflectionTestUtils.setField(service, "windowMs", 3_600_000L);
+        when(mongoTemplate.getCollection("notifications")).thenReturn(collection);
+        when(collection.bulkWrite(any(), any(BulkWriteOptions.class))).thenReturn(mock(BulkWriteResult.class));
+    }
+
+    private static NotificationModel like(String sender, long createdAt) {
+        NotificationModel notification = new NotificationModel();
+        notification.setSenderUsername(sender);
+        notification.setReceiverUsername("bob");
+        notification.setType("LIKE");
+        notification.setMemeId("m1");
+        notification.setCreatedAt(new Date(createdAt));
+        return notification;
+    }
+
+    private static NotificationModel group(String sender, int actorCount) {
+        NotificationModel notification = like(sender, 0);
+        notification.setGroupKey("bob|LIKE|m1");
+        notification.setActorCount(actorCount);
+        return notification;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void repeatedLikesByOneUserCountAsOneActor() {
+        // like -> unlike -> like by alice yields two LIKE events
+        when(mongoTemplate.find(any(Query.class), eq(NotificationModel.class))).thenReturn(List.of(group("alice", 1)));
+
+        NotificationAggregationService.PersistResult result = service.persist(List.of(like("alice", 1), like("alice", 2)));
+
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        verify(collection).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        List<Document> pipeline = (List<Document>) ((UpdateOneModel<Document>) writes.getValue().get(0)).getUpdatePipeline();
+
+        Document newActors = pipeline.get(0).get("$set", Document.class).get("newActors", Document.class);
+        assertEquals(new Document("$literal", List.of("alice")), newActors.get("$filter", Document.class).get("input"));
+        Document actorCount = pipeline.get(1).get("$set", Document.class).get("actorCount", Document.class);
+        assertEquals(new Document("$size", "$newActors"), actorCount.getList("$add", Object.class).get(1));
+
+        assertEquals("alice liked your meme", result.rolledUp().get(0).getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void windowIsAnchoredOnTheFirstEventAndActorsAreCapped() {
+        when(mongoTemplate.find(any(Query.class), eq(NotificationModel.class))).thenReturn(List.of());
+
+        service.persist(List.of(like("alice", 1), like("carol", 2)));
+
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        verify(collection).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        UpdateOneModel<Document> upsert = (UpdateOneModel<Document>) writes.getValue().get(0);
+        List<Document> pipeline = (List<Document>) upsert.getUpdatePipeline();
+
+        assertTrue(upsert.getFilter().toString().contains("firstEventAt"));
+        assertEquals(new Document("$ifNull", List.of("$firstEventAt", new Date(1))),
+                pipeline.get(0).get("$set", Document.class).get("firstEventAt"));
+        List<Object> slice = pipeline.get(1).get("$set", Document.class).get("actors", Document.class)
+                .getList("$slice", Object.class);
+        assertEquals(1000, slice.get(1));
+    }
+
+    @Test
+    void messageNamesTheLatestActorAndCountsTheOthers() {
+        assertEquals("alice liked your meme", service.describe(group("alice", 1)).getMessage());
+        assertEquals("alice and 1 other liked your meme", service.describe(group("alice", 2)).getMessage());
+        assertEquals("alice and 41 others liked your meme", service.describe(group("alice", 42)).getMessage());
+    }
+
+    @Test
+    void plainNotificationKeepsItsMessage() {
+        NotificationModel comment = like("alice", 0);
+        comment.setType("COMMENT");
+        comment.setMessage("alice commented on your meme");
+
+        assertEquals("alice commented on your meme", service.describe(comment).getMessage());
+    }
+}
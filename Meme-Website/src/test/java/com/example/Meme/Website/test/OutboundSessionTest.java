@@ -0,0 +1,92 @@
+package com.example.Meme.Website.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.example.Meme.Website.WebSockets.OutboundSession;
+import com.example.Meme.Website.WebSockets.OutboundSession.OverflowPolicy;
+
+class OutboundSessionTest {
+
+    private final List<String> sent = new ArrayList<>();
+    private final WebSocketSession session = mock(WebSocketSession.class);
+
+    private void recordSends(Runnable duringFirstSend) throws Exception {
+        when(session.isOpen()).thenReturn(true);
+        when(session.getId()).thenReturn("s1");
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            sent.add(message.getPayload().toString());
+            if (sent.size() == 1 && duringFirstSend != null) {
+                duringFirstSend.run();
+            }
+            return null;
+        }).when(session).sendMessage(any());
+    }
+
+    @Test
+    void coalescesFramesThatAreStillQueued() throws Exception {
+        recordSends(null);
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        OutboundSession outbound = new OutboundSession(session, tasks::add, 16, OverflowPolicy.COALESCE);
+
+        outbound.enqueue(new TextMessage("v1"), "counters:m1");
+        outbound.enqueue(new TextMessage("v2"), "counters:m1");
+        outbound.enqueue(new TextMessage("v3"), "counters:m1");
+        runAll(tasks);
+
+        assertEquals(List.of("v3"), sent);
+        assertEquals(2, outbound.getCoalescedCount());
+    }
+
+    @Test
+    void frameEnqueuedWhileItsKeyIsBeingSentIsNotLost() throws Exception {
+        Executor inline = Runnable::run;
+        OutboundSession[] outbound = new OutboundSession[1];
+        // The drain has already taken v1 when the producer coalesces v2 onto the same key
+        recordSends(() -> outbound[0].enqueue(new TextMessage("v2"), "notif:read"));
+        outbound[0] = new OutboundSession(session, inline, 16, OverflowPolicy.COALESCE);
+
+        outbound[0].enqueue(new TextMessage("v1"), "notif:read");
+
+        assertEquals(List.of("v1", "v2"), sent);
+        assertEquals(0, outbound[0].getQueueDepth());
+    }
+
+    @Test
+    void dropOldestKeepsTheQueueWithinCapacity() throws Exception {
+        recordSends(null);
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        OutboundSession outbound = new OutboundSession(session, tasks::add, 2, OverflowPolicy.DROP_OLDEST);
+
+        outbound.enqueue(new TextMessage("a"), null);
+        outbound.enqueue(new TextMessage("b"), null);
+        outbound.enqueue(new TextMessage("c"), null);
+        assertEquals(2, outbound.getQueueDepth());
+        runAll(tasks);
+
+        assertEquals(List.of("b", "c"), sent);
+        assertEquals(1, outbound.getDroppedCount());
+    }
+
+    private static void runAll(Queue<Runnable> tasks) {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.Meme.Website.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.Meme.Website.Properties.RateLimitProperties;
+import com.example.Meme.Website.Security.RateLimitRouteMatcher;
+
+class RateLimitRouteMatcherTest {
+
+    @Test
+    void resolvesDefaultRoutes() {
+        RateLimitRouteMatcher matcher = new RateLimitRouteMatcher();
+
+        assertEquals("api:auth", matcher.resolve("/auth/me"));
+        assertEquals("api:upload", matcher.resolve("/upload/meme"));
+        assertEquals("api:write", matcher.resolve("/upload/profile"));
+        assertEquals("api:delete", matcher.resolve("/memes/delete/abc"));
+        assertEquals("api:scroll", matcher.resolve("/memes/feed/main"));
+        assertEquals("api:scroll", matcher.resolve("/memes/dxyz/liked"));
+        assertEquals("api:read", matcher.resolve("/memes/dxyz/comments"));
+        assertEquals("api:read", matcher.resolve("/profile/bob/FollowType/followers"));
+        assertEquals("api:read", matcher.resolve("/chat/recent"));
+    }
+
+    @Test
+    void reloadReplacesRules() {
+        RateLimitRouteMatcher matcher = new RateLimitRouteMatcher();
+        matcher.reload(List.of(new RateLimitProperties.Route("/chat", "api:scroll")));
+
+        assertEquals("api:scroll", matcher.resolve("/chat/recent"));
+        assertEquals("api:read", matcher.resolve("/auth/me"));
+    }
+
+    @Test
+    void overridesReplaceMatchingPatterns() {
+        RateLimitRouteMatcher matcher = new RateLimitRouteMatcher();
+        matcher.reload(null, Map.of("/memes/feed", "api:read", "/chat", "api:write"));
+
+        assertEquals("api:read", matcher.resolve("/memes/feed/main"));
+        assertEquals("api:write", matcher.resolve("/chat/recent"));
+        assertEquals("api:scroll", matcher.resolve("/memes/discover"));
+    }
+}
@@ -21,6 +21,9 @@ export const NotificationsList: React.FC = () => {
   const isLoading = useNotificationStore.use.isLoading();
   const error = useNotificationStore.use.error();
   const getNotifications = useNotificationStore.use.getNotifications();
+  const loadMoreNotifications = useNotificationStore.use.loadMoreNotifications();
+  const hasMore = useNotificationStore.use.hasMore();
+  const isLoadingMore = useNotificationStore.use.isLoadingMore();
   const addNotification = useNotificationStore.use.addNotification();
   const markAsRead = useNotificationStore.use.markAsRead();
   const markAllAsRead = useNotificationStore.use.markAllAsRead();
@@ -280,6 +283,16 @@ export const NotificationsList: React.FC = () => {
             ))
           )}
         </div>
+
+        {!isLoading && !error && notifications.length > 0 && hasMore && (
+          <button
+            onClick={() => loadMoreNotifications()}
+            disabled={isLoadingMore}
+            className="w-full p-3 text-sm font-medium text-blue-600 hover:bg-gray-50 transition-colors disabled:text-gray-400"
+          >
+            {isLoadingMore ? 'Loading...' : 'Load more'}
+          </button>
+        )}
       </div>
     </div>
   );
@@ -301,7 +301,10 @@ export const useWebSocketStore = create<WebSocketStore>(() => ({
           }
         } catch {}
 
-        // No refetch here; recent chats are updated via UPDATE_RECENT_CHAT handler
+        // No refetch here; the recent chat row rides on the CHAT frame
+        if (data.recentChat) {
+          handleUpdateRecentChat({ type: "UPDATE_RECENT_CHAT", ...data.recentChat });
+        }
       } catch (err) {
         console.error("❌ Error in handleNewMessage:", err, data);
       }
@@ -10,7 +10,7 @@ class WebSocketEventBus {
     this.eventListeners = new Map();
     
     const messageTypes: WebSocketMessageType[] = [
-      'PING', 'PONG', 'FOLLOW', 'COMMENT', 'LIKE', 'SAVE', 
+      'PING', 'PONG', 'FOLLOW', 'COMMENT', 'LIKE', 'SAVE', 'COUNTERS',
       'NOTIFICATION', 'JOIN_POST', 'LEAVE_POST', 'CHAT'
     ];
     
@@ -9,6 +9,7 @@ export type WebSocketMessageType =
   | "COMMENT"
   | "LIKE"
   | "SAVE"
+  | "COUNTERS"
   | "NOTIFICATION"
   | "JOIN_POST"
   | "LEAVE_POST"
@@ -52,6 +53,7 @@ class WebSocketService {
     COMMENT: new Set(),
     LIKE: new Set(),
     SAVE: new Set(),
+    COUNTERS: new Set(),
     NOTIFICATION: new Set(),
     JOIN_POST: new Set(),
     LEAVE_POST: new Set(),
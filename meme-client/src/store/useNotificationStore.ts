@@ -4,14 +4,19 @@ import { createSelectors } from "./createSelectors";
 import api from "../hooks/api";
 import type { Notification } from "../types/mems";
 
+const PAGE_SIZE = 50;
+
 interface NotificationState {
   notifications: Notification[];
   isLoading: boolean;
+  isLoadingMore: boolean;
+  hasMore: boolean;
   error: string | null;
 }
 
 interface NotificationActions {
   getNotifications: (username: string) => void;
+  loadMoreNotifications: () => Promise<void>;
   addNotification: (notification: Partial<Notification>) => void;
   markAsRead: (notificationId: string) => Promise<void>;
   markAllAsRead: () => Promise<void>;
@@ -21,9 +26,11 @@ interface NotificationActions {
 export type NotificationStore = NotificationState & NotificationActions;
 
 const useRawNotificationStore = create<NotificationStore>()(
-  immer((set) => ({
+  immer((set, get) => ({
     notifications: [],
     isLoading: false,
+    isLoadingMore: false,
+    hasMore: true,
     error: null,
 
     getNotifications: async () => {
@@ -33,7 +40,7 @@ const useRawNotificationStore = create<NotificationStore>()(
           state.error = null;
         });
 
-        const response = await api.get(`/notifications`);
+        const response = await api.get(`/notifications`, { params: { size: PAGE_SIZE } });
         
         const processedNotifications = response.data.map((notification: Notification) => ({
           ...notification,
@@ -42,6 +49,7 @@ const useRawNotificationStore = create<NotificationStore>()(
         
         set((state) => {
           state.notifications = processedNotifications;
+          state.hasMore = processedNotifications.length === PAGE_SIZE;
           state.isLoading = false;
         });
       } catch (error) {
@@ -52,6 +60,47 @@ const useRawNotificationStore = create<NotificationStore>()(
       }
     },
 
+    // Continues after the oldest loaded notification, the server pages on (createdAt, id)
+    loadMoreNotifications: async () => {
+      const { notifications, hasMore, isLoadingMore } = get();
+      const last = notifications[notifications.length - 1];
+      if (!hasMore || isLoadingMore || !last) return;
+
+      try {
+        set((state) => {
+          state.isLoadingMore = true;
+        });
+
+        const response = await api.get(`/notifications`, {
+          params: {
+            before: new Date(last.createdAt).toISOString(),
+            beforeId: last.id,
+            size: PAGE_SIZE,
+          },
+        });
+
+        const processedNotifications = response.data.map((notification: Notification) => ({
+          ...notification,
+          createdAt: notification.createdAt ? new Date(notification.createdAt) : new Date()
+        }));
+
+        set((state) => {
+          const loadedIds = new Set(state.notifications.map((n: Notification) => n.id));
+          state.notifications = [
+            ...state.notifications,
+            ...processedNotifications.filter((n: Notification) => !loadedIds.has(n.id)),
+          ];
+          state.hasMore = processedNotifications.length === PAGE_SIZE;
+          state.isLoadingMore = false;
+        });
+      } catch (error) {
+        set((state) => {
+          state.error = `Failed to fetch notifications`;
+          state.isLoadingMore = false;
+        });
+      }
+    },
+
     addNotification: (notification: Partial<Notification>) => {
       set((state) => {
         const newNotification: Notification = {
@@ -124,6 +173,7 @@ const useRawNotificationStore = create<NotificationStore>()(
         
         set((state) => {
           state.notifications = [];
+          state.hasMore = false;
           state.isLoading = false;
         });
       } catch (error) {
@@ -200,6 +200,28 @@ const useRawWebSocketConnectionStore = create<WebSocketConnectionStore>()(
         }
       });
       
+      const countersHandler = useWebSocketStore.getState().registerMessageHandler('COUNTERS', (data) => {
+        if (data.memeId) {
+          const memeStore = useMemeContentStore.getState() as MemeContentStore;
+          const memeId = data.memeId as string;
+
+          // Absolute counts are authoritative, the deltas are only applied when the server had none
+          const current = memeStore.selectedMeme?.id === memeId
+            ? memeStore.selectedMeme
+            : memeStore.memes.find((m: Meme) => m.id === memeId);
+          const resolve = (absolute: unknown, delta: unknown, base: number | undefined) => {
+            if (absolute !== undefined) return Number(absolute);
+            if (delta !== undefined && base !== undefined) return base + Number(delta);
+            return undefined;
+          };
+
+          memeStore.updateMemeStats(memeId, {
+            likes: resolve(data.likeCount, data.likes, current?.likeCount),
+            saves: resolve(data.saveCount, data.saves, current?.saveCount)
+          });
+        }
+      });
+
       const notificationHandler = useWebSocketStore.getState().registerMessageHandler('NOTIFICATION', (data) => {
         const notificationStore = useNotificationStore.getState() as NotificationStore;
         notificationStore.addNotification({
@@ -244,6 +266,7 @@ const useRawWebSocketConnectionStore = create<WebSocketConnectionStore>()(
         commentHandler();
         likeHandler();
         saveHandler();
+        countersHandler();
         notificationHandler();
         followHandler();
       };